@@ -0,0 +1,41 @@
+package maze;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class GenerationBenchmark {
+    @Param({"101", "1001", "4001"})
+    private int size;
+
+    @Param({"PRIM", "KRUSKAL", "WILSON", "BACKTRACKER", "TILED"})
+    private GeneratorType generator;
+
+    @Param({"csr", "implicit"})
+    private String graph;
+
+    private GraphMaker graphMaker;
+    private Maze maze;
+
+    @Setup
+    public void setUp() {
+        graphMaker = new GraphMaker();
+        graphMaker.setImplicit(graph.equals("implicit"));
+        graphMaker.make(size, size);
+        maze = new Maze(graphMaker);
+    }
+
+    @Benchmark
+    public Maze generate() {
+        maze.init(graphMaker);
+        maze.setGenerator(generator);
+        maze.generate();
+        return maze;
+    }
+}
@@ -0,0 +1,27 @@
+package maze;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class GraphMakerBenchmark {
+    @Param({"101", "1001", "4001"})
+    private int size;
+
+    @Param({"csr", "implicit"})
+    private String graph;
+
+    @Benchmark
+    public GridGraph make() {
+        GraphMaker graphMaker = new GraphMaker();
+        graphMaker.setImplicit(graph.equals("implicit"));
+        graphMaker.make(size, size);
+        return graphMaker.getGraph();
+    }
+}
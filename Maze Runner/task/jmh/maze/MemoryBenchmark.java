@@ -0,0 +1,46 @@
+package maze;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class MemoryBenchmark {
+    @Param({"101", "1001", "4001"})
+    private int size;
+
+    private Path file;
+    private Maze.MazeState state;
+
+    @Setup
+    public void setUp() throws IOException {
+        Maze maze = new Maze(new GraphMaker(size, size));
+        maze.generate();
+        state = maze.getState();
+        file = Files.createTempFile("maze-benchmark", ".bin");
+        MazeFile.write(state, file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        MazeFile.write(state, file);
+    }
+
+    @Benchmark
+    public Maze.MazeState map() throws IOException {
+        return MazeFile.map(file);
+    }
+}
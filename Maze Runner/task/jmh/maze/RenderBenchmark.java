@@ -0,0 +1,37 @@
+package maze;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RenderBenchmark {
+    @Param({"101", "1001", "4001"})
+    private int size;
+
+    private Maze maze;
+
+    @Setup
+    public void setUp() {
+        maze = new Maze(new GraphMaker(size, size));
+        maze.generate();
+        maze.findShortestPath();
+    }
+
+    @Benchmark
+    public String renderToString() {
+        return maze.toString();
+    }
+
+    @Benchmark
+    public void renderToStream() throws IOException {
+        maze.render(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,30 @@
+package maze;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class SolverBenchmark {
+    @Param({"101", "1001", "4001"})
+    private int size;
+
+    private Maze.MazeState state;
+
+    @Setup
+    public void setUp() {
+        Maze maze = new Maze(new GraphMaker(size, size));
+        maze.generate();
+        state = maze.getState();
+    }
+
+    @Benchmark
+    public int[] findPath() {
+        return new Solver().findPath(state.getGrid(), state.getEnter(), state.getExit());
+    }
+}
@@ -0,0 +1,36 @@
+package maze;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+public class BacktrackerGenerator implements MazeGenerator {
+    @Override
+    public void generate(GridGraph graph, Grid grid, SplittableRandom random) {
+        int[] stack = new int[graph.size()];
+        int[] candidates = new int[4];
+        BitSet visited = new BitSet(graph.size());
+        int start = graph.getStart();
+        int top = 0;
+        stack[top++] = start;
+        visited.set(start);
+        grid.setPassage(start);
+        while (top > 0) {
+            int node = stack[top - 1];
+            int found = 0;
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                int to = graph.target(edge);
+                if (!visited.get(to)) {
+                    candidates[found++] = to;
+                }
+            }
+            if (found == 0) {
+                top--;
+                continue;
+            }
+            int to = candidates[random.nextInt(found)];
+            visited.set(to);
+            grid.connect(node, to);
+            stack[top++] = to;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package maze;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BatchRunner {
+    private static final String USAGE = "Usage: batch --count N --size MIN[-MAX] [--seed S] "
+            + "[--output DIR] [--threads T] [--generator NAME] "
+            + "[--graph csr|implicit] [--pipeline GENERATE,SOLVE,RENDER,PERSIST] [--queue N] "
+            + "[--stats FILE]";
+
+    private int count = 1;
+    private int minSize = 17;
+    private int maxSize = 17;
+    private long seed = System.nanoTime();
+    private Path output = Paths.get(".");
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private GeneratorType generatorType = GeneratorType.PRIM;
+    private boolean implicit;
+    private int[] pipeline;
+    private int queue = 16;
+    private Path statsFile;
+    private String[] stats;
+
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    private class Worker {
+        private final GraphMaker graphMaker = new GraphMaker();
+        private final Maze maze = new Maze(graphMaker);
+        private final Memory memory = new Memory(maze);
+        private final MazeAnalyzer analyzer = new MazeAnalyzer();
+
+        void run(int index, int size, long seed) throws IOException {
+            graphMaker.setImplicit(implicit);
+            graphMaker.make(size, size, seed);
+            maze.init(graphMaker);
+            maze.setGenerator(generatorType);
+            maze.generate();
+            maze.findShortestPath();
+            if (stats != null) {
+                stats[index] = index + "," + size + "," + seed + "," + maze.analyze(analyzer).toCsv();
+            }
+            memory.saveToFile(output.resolve(String.format("maze-%06d.bin", index)).toString());
+        }
+    }
+
+    public static BatchRunner parse(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i] + "\n" + USAGE);
+            }
+            String value = args[i + 1];
+            try {
+                runner.set(args[i], value);
+            } catch (NumberFormatException | InvalidPathException e) {
+                throw new IllegalArgumentException("Invalid value for " + args[i] + ": " + value + "\n" + USAGE);
+            }
+        }
+        if (runner.count < 1 || runner.threads < 1 || runner.minSize < 3 || runner.maxSize < runner.minSize
+                || runner.queue < 1) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        if (runner.statsFile != null && runner.pipeline != null) {
+            throw new IllegalArgumentException("--stats cannot be combined with --pipeline\n" + USAGE);
+        }
+        return runner;
+    }
+
+    private void set(String option, String value) {
+        switch (option) {
+            case "--count":
+                count = Integer.parseInt(value);
+                break;
+            case "--size":
+                String[] range = value.split("-");
+                minSize = Integer.parseInt(range[0]);
+                maxSize = Integer.parseInt(range[range.length - 1]);
+                break;
+            case "--seed":
+                seed = Long.parseLong(value);
+                break;
+            case "--output":
+                output = Paths.get(value);
+                break;
+            case "--threads":
+                threads = Integer.parseInt(value);
+                break;
+            case "--generator":
+                generatorType = generator(value);
+                break;
+            case "--graph":
+                if (!value.equals("csr") && !value.equals("implicit")) {
+                    throw new IllegalArgumentException("Unknown graph " + value + "\n" + USAGE);
+                }
+                implicit = value.equals("implicit");
+                break;
+            case "--pipeline":
+                String[] stages = value.split(",");
+                if (stages.length != 4) {
+                    throw new IllegalArgumentException("--pipeline needs four thread counts\n" + USAGE);
+                }
+                pipeline = new int[stages.length];
+                for (int stage = 0; stage < stages.length; stage++) {
+                    pipeline[stage] = Integer.parseInt(stages[stage]);
+                }
+                break;
+            case "--queue":
+                queue = Integer.parseInt(value);
+                break;
+            case "--stats":
+                statsFile = Paths.get(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option " + option + "\n" + USAGE);
+        }
+    }
+
+    private static GeneratorType generator(String name) {
+        try {
+            return GeneratorType.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown generator " + name + "\n" + USAGE);
+        }
+    }
+
+    public void run() throws IOException, InterruptedException {
+        prepareOutput(output);
+        if (statsFile != null && statsFile.toAbsolutePath().getParent() != null) {
+            prepareOutput(statsFile.toAbsolutePath().getParent());
+        }
+        if (pipeline != null) {
+            runPipeline();
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] latencies = new long[count];
+        if (statsFile != null) {
+            stats = new String[count];
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>(count);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                int size = minSize + random.nextInt(maxSize - minSize + 1);
+                long mazeSeed = random.nextLong();
+                results.add(pool.submit(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        workers.get().run(index, size, mazeSeed);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    latencies[index] = System.nanoTime() - begin;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Batch failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (stats != null) {
+            List<String> lines = new ArrayList<>(count + 1);
+            lines.add("index,size,seed," + MazeStats.CSV_HEADER);
+            lines.addAll(Arrays.asList(stats));
+            Files.write(statsFile, lines);
+        }
+        report(latencies, elapsed);
+    }
+
+    private static void prepareOutput(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot create output directory " + directory + ": " + e + "\n" + USAGE);
+        }
+        if (!Files.isWritable(directory)) {
+            throw new IllegalArgumentException("Output directory " + directory + " is not writable\n" + USAGE);
+        }
+    }
+
+    private void runPipeline() throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] sizes = new int[count];
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            sizes[i] = minSize + random.nextInt(maxSize - minSize + 1);
+            seeds[i] = random.nextLong();
+        }
+        MazePipeline stages = new MazePipeline(generatorType, output, queue,
+                pipeline[0], pipeline[1], pipeline[2], pipeline[3]);
+        stages.setImplicitGraph(implicit);
+        long start = System.nanoTime();
+        long[] latencies = stages.run(sizes, seeds);
+        report(latencies, System.nanoTime() - start, String.format("a %d,%d,%d,%d pipeline",
+                pipeline[0], pipeline[1], pipeline[2], pipeline[3]));
+    }
+
+    private void report(long[] latencies, long elapsed) {
+        report(latencies, elapsed, threads + " threads");
+    }
+
+    private void report(long[] latencies, long elapsed, String mode) {
+        System.out.printf("Generated %d mazes in %.1f ms (%.1f mazes/s) with %s%n",
+                count, elapsed / 1e6, count / (elapsed / 1e9), mode);
+        System.out.println("Latency ms: " + Latencies.summary(latencies));
+    }
+}
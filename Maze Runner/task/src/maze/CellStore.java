@@ -0,0 +1,12 @@
+package maze;
+
+public interface CellStore {
+
+    int getHeight();
+
+    int getWidth();
+
+    boolean isWall(int y, int x);
+
+    boolean isPath(int y, int x);
+}
@@ -0,0 +1,105 @@
+package maze;
+
+public class CsrGraph implements GridGraph {
+    private final int height;
+    private final int width;
+    private final int[] offsets;
+    private final long[] edges;
+
+    public CsrGraph(int height, int width, int[] offsets, long[] edges) {
+        this.height = height;
+        this.width = width;
+        this.offsets = offsets;
+        this.edges = edges;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int size() {
+        return height * width;
+    }
+
+    @Override
+    public int id(int y, int x) {
+        return y * width + x;
+    }
+
+    @Override
+    public int row(int cell) {
+        return cell / width;
+    }
+
+    @Override
+    public int column(int cell) {
+        return cell % width;
+    }
+
+    @Override
+    public int getStart() {
+        return id(1, 1);
+    }
+
+    @Override
+    public int firstEdge(int cell) {
+        return offsets[cell];
+    }
+
+    @Override
+    public int endEdge(int cell) {
+        return offsets[cell + 1];
+    }
+
+    @Override
+    public int degree(int cell) {
+        return offsets[cell + 1] - offsets[cell];
+    }
+
+    @Override
+    public int source(int edge) {
+        int low = 0;
+        int high = offsets.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= edge) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public int target(int edge) {
+        return (int) edges[edge];
+    }
+
+    @Override
+    public int weight(int edge) {
+        return (int) (edges[edge] >>> 32);
+    }
+
+    @Override
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    @Override
+    public long byteSize() {
+        return (long) offsets.length * Integer.BYTES + (long) edges.length * Long.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return GridGraph.describe(this);
+    }
+}
@@ -0,0 +1,51 @@
+package maze;
+
+import java.util.Arrays;
+
+public class DisjointSet {
+    private final int[] parent;
+    private final byte[] rank;
+
+    public DisjointSet(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        reset();
+    }
+
+    public void reset() {
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        Arrays.fill(rank, (byte) 0);
+    }
+
+    public int find(int item) {
+        int root = item;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[item] != root) {
+            int next = parent[item];
+            parent[item] = root;
+            item = next;
+        }
+        return root;
+    }
+
+    public boolean union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+        if (rank[firstRoot] < rank[secondRoot]) {
+            parent[firstRoot] = secondRoot;
+        } else if (rank[firstRoot] > rank[secondRoot]) {
+            parent[secondRoot] = firstRoot;
+        } else {
+            parent[secondRoot] = firstRoot;
+            rank[firstRoot]++;
+        }
+        return true;
+    }
+}
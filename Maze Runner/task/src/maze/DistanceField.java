@@ -0,0 +1,155 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+public class DistanceField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Grid grid;
+    private final int source;
+    private final int[] distance;
+    private final int[] parent;
+    private final int[] queue;
+    private int touched;
+
+    public DistanceField(Grid grid, int source) {
+        this.grid = grid;
+        this.source = source;
+        this.distance = new int[grid.size()];
+        this.parent = new int[grid.size()];
+        this.queue = new int[grid.size()];
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(parent, -1);
+        if (!grid.isWall(source)) {
+            distance[source] = 0;
+            parent[source] = source;
+            propagate(source);
+        }
+    }
+
+    public int distance(int cell) {
+        return distance[cell];
+    }
+
+    public int getTouched() {
+        return touched;
+    }
+
+    public long byteSize() {
+        return 3L * distance.length * Integer.BYTES;
+    }
+
+    public void opened(int cell) {
+        touched = 1;
+        if (cell == source) {
+            distance[cell] = 0;
+            parent[cell] = cell;
+        } else {
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(cell, direction);
+                if (next != -1 && distance[next] != UNREACHABLE && distance[next] + 1 < distance[cell]) {
+                    distance[cell] = distance[next] + 1;
+                    parent[cell] = next;
+                }
+            }
+        }
+        if (distance[cell] != UNREACHABLE) {
+            propagate(cell);
+        }
+    }
+
+    public void closed(int cell) {
+        touched = 0;
+        if (distance[cell] == UNREACHABLE) {
+            return;
+        }
+        int count = collectSubtree(cell);
+        for (int i = 0; i < count; i++) {
+            distance[queue[i]] = UNREACHABLE;
+            parent[queue[i]] = -1;
+        }
+
+        PriorityQueue<Long> frontier = new PriorityQueue<>();
+        for (int i = 0; i < count; i++) {
+            int node = queue[i];
+            if (node == cell) {
+                continue;
+            }
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(node, direction);
+                if (next != -1 && !grid.isWall(next) && distance[next] != UNREACHABLE
+                        && distance[next] + 1 < distance[node]) {
+                    distance[node] = distance[next] + 1;
+                    parent[node] = next;
+                }
+            }
+            if (distance[node] != UNREACHABLE) {
+                frontier.add((long) distance[node] << 32 | node);
+            }
+        }
+        while (!frontier.isEmpty()) {
+            long entry = frontier.poll();
+            int node = (int) entry;
+            if ((int) (entry >>> 32) != distance[node]) {
+                continue;
+            }
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(node, direction);
+                if (next != -1 && !grid.isWall(next) && distance[node] + 1 < distance[next]) {
+                    distance[next] = distance[node] + 1;
+                    parent[next] = node;
+                    frontier.add((long) distance[next] << 32 | next);
+                }
+            }
+        }
+    }
+
+    public int[] path(int to) {
+        if (distance[to] == UNREACHABLE) {
+            return new int[0];
+        }
+        int[] path = new int[distance[to] + 1];
+        int node = to;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = node;
+            node = parent[node];
+        }
+        return path;
+    }
+
+    private int collectSubtree(int root) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(node, direction);
+                if (next != -1 && next != node && parent[next] == node) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+        touched += tail;
+        return tail;
+    }
+
+    private void propagate(int start) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(node, direction);
+                if (next != -1 && !grid.isWall(next) && distance[node] + 1 < distance[next]) {
+                    distance[next] = distance[node] + 1;
+                    parent[next] = node;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        touched += tail;
+    }
+}
@@ -0,0 +1,210 @@
+package maze;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class DistanceMap {
+    public static final int UNREACHABLE = -1;
+    private static final VarHandle DISTANCE = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int SEQUENTIAL_FRONTIER = 1 << 13;
+    private static final int CHUNK = 1 << 11;
+    private static final int LEVELS = 254;
+    private static final int WALL = 254;
+    private static final int CUT_OFF = 255;
+    private static final byte[] HEAT_PALETTE = heatPalette();
+
+    private final Grid grid;
+    private final int[] distance;
+    private int maxDistance;
+    private long reached;
+
+    private DistanceMap(Grid grid) {
+        this.grid = grid;
+        this.distance = new int[grid.size()];
+    }
+
+    public static DistanceMap compute(Grid grid, int source) {
+        return compute(grid, source, ForkJoinPool.commonPool());
+    }
+
+    public static DistanceMap compute(Grid grid, int source, ForkJoinPool pool) {
+        DistanceMap map = new DistanceMap(grid);
+        Arrays.fill(map.distance, UNREACHABLE);
+        if (!grid.isWall(source)) {
+            map.search(source, pool);
+        }
+        return map;
+    }
+
+    public int distance(int cell) {
+        return distance[cell];
+    }
+
+    public int distance(int y, int x) {
+        return distance[grid.id(y, x)];
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    public long getReached() {
+        return reached;
+    }
+
+    public long byteSize() {
+        return (long) distance.length * Integer.BYTES;
+    }
+
+    public int level(int y, int x) {
+        int cell = grid.id(y, x);
+        if (grid.isWall(cell)) {
+            return WALL;
+        }
+        int value = distance[cell];
+        if (value == UNREACHABLE) {
+            return CUT_OFF;
+        }
+        return maxDistance == 0 ? 0 : (int) ((long) value * (LEVELS - 1) / maxDistance);
+    }
+
+    public byte[] levels() {
+        byte[] levels = new byte[distance.length];
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                levels[grid.id(y, x)] = (byte) level(y, x);
+            }
+        }
+        return levels;
+    }
+
+    public long writeHeatmap(OutputStream out, int scale) throws IOException {
+        return new PngExporter(grid.getHeight(), grid.getWidth(), this::level, HEAT_PALETTE, 8, scale).write(out);
+    }
+
+    private void search(int source, ForkJoinPool pool) {
+        int[] frontier = new int[SEQUENTIAL_FRONTIER];
+        int size = 1;
+        frontier[0] = source;
+        distance[source] = 0;
+        reached = 1;
+        int level = 0;
+        while (size > 0) {
+            level++;
+            int[] next = size < SEQUENTIAL_FRONTIER
+                    ? expandSequential(frontier, size, level)
+                    : expandParallel(frontier, size, level, pool);
+            size = next[next.length - 1];
+            frontier = next;
+            reached += size;
+            if (size > 0) {
+                maxDistance = level;
+            }
+        }
+    }
+
+    private int[] expandSequential(int[] frontier, int size, int level) {
+        int[] next = new int[Math.max(16, 3 * size + 2)];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int cell = frontier[i];
+            for (int direction = 0; direction < 4; direction++) {
+                int target = grid.neighbour(cell, direction);
+                if (target != -1 && distance[target] == UNREACHABLE && !grid.isWall(target)) {
+                    distance[target] = level;
+                    next[count++] = target;
+                }
+            }
+        }
+        next[next.length - 1] = count;
+        return next;
+    }
+
+    private int[] expandParallel(int[] frontier, int size, int level, ForkJoinPool pool) {
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        int[][] parts = new int[chunks][];
+        int[] counts = new int[chunks];
+        pool.invoke(new Expand(frontier, size, level, parts, counts, 0, chunks));
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        int[] next = new int[Math.max(total, SEQUENTIAL_FRONTIER) + 1];
+        int offset = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            System.arraycopy(parts[chunk], 0, next, offset, counts[chunk]);
+            offset += counts[chunk];
+        }
+        next[next.length - 1] = total;
+        return next;
+    }
+
+    @SuppressWarnings("serial")
+    private class Expand extends RecursiveAction {
+        private final int[] frontier;
+        private final int size;
+        private final int level;
+        private final int[][] parts;
+        private final int[] counts;
+        private final int from;
+        private final int to;
+
+        Expand(int[] frontier, int size, int level, int[][] parts, int[] counts, int from, int to) {
+            this.frontier = frontier;
+            this.size = size;
+            this.level = level;
+            this.parts = parts;
+            this.counts = counts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Expand(frontier, size, level, parts, counts, from, middle),
+                        new Expand(frontier, size, level, parts, counts, middle, to));
+                return;
+            }
+            int first = from * CHUNK;
+            int last = Math.min(size, first + CHUNK);
+            int[] part = new int[3 * (last - first) + 1];
+            int count = 0;
+            for (int i = first; i < last; i++) {
+                int cell = frontier[i];
+                for (int direction = 0; direction < 4; direction++) {
+                    int target = grid.neighbour(cell, direction);
+                    if (target != -1 && distance[target] == UNREACHABLE && !grid.isWall(target)
+                            && DISTANCE.compareAndSet(distance, target, UNREACHABLE, level)) {
+                        part[count++] = target;
+                    }
+                }
+            }
+            parts[from] = part;
+            counts[from] = count;
+        }
+    }
+
+    private static byte[] heatPalette() {
+        byte[] palette = new byte[3 * 256];
+        for (int level = 0; level < LEVELS; level++) {
+            double t = level / (double) (LEVELS - 1);
+            palette[3 * level] = (byte) (255 * Math.min(1, 2 * t));
+            palette[3 * level + 1] = (byte) (255 * (1 - Math.abs(2 * t - 1)));
+            palette[3 * level + 2] = (byte) (255 * Math.min(1, 2 - 2 * t));
+        }
+        palette[3 * WALL] = 0;
+        palette[3 * WALL + 1] = 0;
+        palette[3 * WALL + 2] = 0;
+        palette[3 * CUT_OFF] = (byte) 0x80;
+        palette[3 * CUT_OFF + 1] = (byte) 0x80;
+        palette[3 * CUT_OFF + 2] = (byte) 0x80;
+        return palette;
+    }
+}
@@ -0,0 +1,115 @@
+package maze;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class EllerGenerator {
+    private final Seeds seeds;
+
+    public EllerGenerator() {
+        this(Seeds.randomSeed());
+    }
+
+    public EllerGenerator(long seed) {
+        this.seeds = new Seeds(seed);
+    }
+
+    public void generate(int height, int width, RowSink sink) throws IOException {
+        if (height < 3 || width < 3) {
+            throw new IllegalArgumentException("Maze must be at least 3x3: " + height + "x" + width);
+        }
+        SplittableRandom random = seeds.tree();
+        SplittableRandom entrances = seeds.entrances();
+        int rows = (height - 1) / 2;
+        int columns = (width - 1) / 2;
+        int enterRow = 2 * entrances.nextInt(rows) + 1;
+        int exitRow = 2 * entrances.nextInt(rows) + 1;
+
+        long[] row = new long[(width + 63) >>> 6];
+        long[] below = new long[row.length];
+        int[] labels = new int[columns];
+        int[] firstWithLabel = new int[columns];
+        int[] remaining = new int[columns];
+        boolean[] hasDown = new boolean[columns];
+        DisjointSet sets = new DisjointSet(columns);
+        Arrays.fill(labels, -1);
+
+        sink.begin(height, width, enterRow, exitRow);
+        sink.row(row);
+        for (int r = 0; r < rows; r++) {
+            boolean last = r == rows - 1;
+            int y = 2 * r + 1;
+            Arrays.fill(row, 0);
+            Arrays.fill(below, 0);
+
+            sets.reset();
+            Arrays.fill(firstWithLabel, -1);
+            for (int c = 0; c < columns; c++) {
+                int label = labels[c];
+                if (label == -1) {
+                    continue;
+                }
+                if (firstWithLabel[label] == -1) {
+                    firstWithLabel[label] = c;
+                } else {
+                    sets.union(firstWithLabel[label], c);
+                }
+            }
+
+            for (int c = 0; c < columns; c++) {
+                set(row, 2 * c + 1);
+                if (c < columns - 1 && (last || random.nextBoolean()) && sets.union(c, c + 1)) {
+                    set(row, 2 * c + 2);
+                }
+            }
+            if (width % 2 == 0) {
+                set(row, width - 2);
+            }
+            if (y == enterRow) {
+                set(row, 0);
+            }
+            if (y == exitRow) {
+                set(row, width - 1);
+            }
+            sink.row(row);
+
+            if (last) {
+                break;
+            }
+            Arrays.fill(remaining, 0);
+            Arrays.fill(hasDown, false);
+            for (int c = 0; c < columns; c++) {
+                remaining[sets.find(c)]++;
+            }
+            for (int c = 0; c < columns; c++) {
+                int root = sets.find(c);
+                remaining[root]--;
+                boolean down = random.nextBoolean() || remaining[root] == 0 && !hasDown[root];
+                if (down) {
+                    hasDown[root] = true;
+                    set(below, 2 * c + 1);
+                    labels[c] = root;
+                } else {
+                    labels[c] = -1;
+                }
+            }
+            sink.row(below);
+        }
+
+        if (height % 2 == 0) {
+            Arrays.fill(row, 0);
+            for (int c = 0; c < columns; c++) {
+                set(row, 2 * c + 1);
+            }
+            sink.row(row);
+        }
+        Arrays.fill(row, 0);
+        sink.row(row);
+        sink.end();
+    }
+
+    private static void set(long[] row, int x) {
+        row[x >>> 6] |= 1L << x;
+    }
+}
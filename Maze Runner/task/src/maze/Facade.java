@@ -7,6 +7,7 @@ public class Facade {
     private final GraphMaker graphMaker;
     private final Maze maze;
     private final Memory memory;
+    private GeneratorType generatorType = GeneratorType.PRIM;
 
     public Facade(GraphMaker graphMaker, Maze maze, Memory memory) {
         this.graphMaker = graphMaker;
@@ -14,18 +15,33 @@ public class Facade {
         this.memory = memory;
     }
 
-    public void generateMaze() {
+    public void generateMaze() throws IOException {
         Scanner scanner = new Scanner(System.in);
         System.out.println("Please, enter the size of a maze");
         int size = scanner.nextInt();
         graphMaker.make(size, size);
         maze.init(graphMaker);
+        maze.setGenerator(generatorType);
         maze.generate();
         displayMaze();
     }
 
-    public void displayMaze() {
-        System.out.println(maze);
+    public void setGeneratorType(GeneratorType generatorType) {
+        this.generatorType = generatorType;
+    }
+
+    public void setImplicitGraph(boolean implicit) {
+        graphMaker.setImplicit(implicit);
+    }
+
+    public void displayMaze() throws IOException {
+        maze.render(System.out);
+        System.out.println();
+    }
+
+    public void displayMaze(int row, int column, int height, int width) throws IOException {
+        maze.render(System.out, row, column, height, width);
+        System.out.println();
     }
 
     public void loadMaze() throws IOException, ClassNotFoundException {
@@ -40,7 +56,15 @@ public class Facade {
         memory.saveToFile(fileName);
     }
 
-    public void findEscape() {
+    public void displayMetrics() {
+        System.out.print(Metrics.toJson());
+    }
+
+    public void displayStats() {
+        System.out.println(maze.getStats());
+    }
+
+    public void findEscape() throws IOException {
         maze.findShortestPath();
         displayMaze();
     }
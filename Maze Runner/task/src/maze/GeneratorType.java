@@ -0,0 +1,42 @@
+package maze;
+
+import java.util.function.Supplier;
+
+public enum GeneratorType {
+    PRIM(0, 1, PrimGenerator::new),
+    KRUSKAL(1, 1, KruskalGenerator::new),
+    WILSON(2, 1, WilsonGenerator::new),
+    BACKTRACKER(3, 1, BacktrackerGenerator::new),
+    TILED(4, 2, TiledGenerator::new);
+
+    private final int id;
+    private final int version;
+    private final Supplier<MazeGenerator> factory;
+
+    GeneratorType(int id, int version, Supplier<MazeGenerator> factory) {
+        this.id = id;
+        this.version = version;
+        this.factory = factory;
+    }
+
+    public MazeGenerator create() {
+        return factory.get();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public static GeneratorType byId(int id) {
+        for (GeneratorType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown generator id: " + id);
+    }
+}
@@ -1,77 +1,102 @@
 package maze;
 
-import java.io.Serializable;
-import java.util.*;
+import java.util.SplittableRandom;
 
-public class GraphMaker implements Serializable {
-    private static final long serialVersionUID = 1424735767359371007L;
+public class GraphMaker {
     private int width;
     private int height;
-    private Node[][] matrix;
-    private transient Map<Node, List<Edge>> graph;
+    private Seeds seeds;
+    private GridGraph graph;
+    private boolean implicit;
 
     public GraphMaker(int height, int weight) {
         make(height, weight);
     }
 
+    public GraphMaker(int height, int weight, long seed) {
+        make(height, weight, seed);
+    }
+
     public GraphMaker() { }
 
     public void make(int height, int weight) {
-        this.width = weight;
-        this.height = height;
-        matrix = new Node[height][width];
-        graph = new HashMap<>();
-        initMatrix();
-        createGraph();
+        make(height, weight, Seeds.randomSeed());
     }
 
-    private void initMatrix() {
-        int i = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Node node = new Node(i);
-                node.setCoordinates(y, x);
-                matrix[y][x] = node;
-                graph.putIfAbsent(node, new ArrayList<>());
-                i++;
+    public void make(int height, int weight, long seed) {
+        this.width = weight;
+        this.height = height;
+        this.seeds = new Seeds(seed);
+        try (Operation operation = Operation.start("graph.build", height, weight)) {
+            if (implicit) {
+                graph = new ImplicitGraph(height, weight, seeds.graph().nextLong());
+            } else {
+                createGraph();
             }
+            operation.bytes(graph.byteSize());
         }
     }
 
     private void createGraph() {
-        Random rand = new Random();
+        int[] offsets = new int[height * width + 1];
         for (int y = 1; y < height - 1; y += 2) {
             for (int x = 1; x < width - 1; x += 2) {
-                Node node = matrix[y][x];
-                for (int yAdjacent : List.of(y - 2, y, y + 2)) {
-                    for (int xAdjacent : List.of(x - 2, x, x + 2)) {
-                        if ((x == xAdjacent && y == yAdjacent) || (x != xAdjacent && y != yAdjacent)) {
-                            continue;
-                        }
-                        if (yAdjacent == height - 1) {
-                            yAdjacent -= 1;
-                        }
-                        if (xAdjacent == width - 1) {
-                            xAdjacent -= 1;
-                        }
-                        try {
-                            Node adjacentNode = matrix[yAdjacent][xAdjacent];
-                            int weight = rand.nextInt(width * height) + 1;
-                            addEdge(node, adjacentNode, weight);
-                        } catch (IndexOutOfBoundsException ignore) { }
-                    }
+                int node = y * width + x;
+                int right = rightOf(y, x);
+                if (right != -1) {
+                    offsets[node]++;
+                    offsets[right]++;
+                }
+                int below = belowOf(y, x);
+                if (below != -1) {
+                    offsets[node]++;
+                    offsets[below]++;
                 }
             }
         }
-    }
+        int total = 0;
+        for (int cell = 0; cell < offsets.length; cell++) {
+            int degree = offsets[cell];
+            offsets[cell] = total;
+            total += degree;
+        }
 
-    private void addEdge(Node from, Node to, int weight) {
-        Edge edge = new Edge(from, to, weight);
-        List<Edge> edges = graph.get(from);
-        if (!edges.contains(edge)) {
-            graph.get(from).add(edge);
-            graph.get(to).add(edge.flip());
+        SplittableRandom rand = seeds.graph();
+        int bound = (int) Math.min(Integer.MAX_VALUE, (long) width * height);
+        long[] edges = new long[total];
+        for (int y = 1; y < height - 1; y += 2) {
+            for (int x = 1; x < width - 1; x += 2) {
+                int node = y * width + x;
+                int right = rightOf(y, x);
+                if (right != -1) {
+                    addEdge(offsets, edges, node, right, rand.nextInt(bound) + 1);
+                }
+                int below = belowOf(y, x);
+                if (below != -1) {
+                    addEdge(offsets, edges, node, below, rand.nextInt(bound) + 1);
+                }
+            }
+        }
+        for (int cell = offsets.length - 1; cell > 0; cell--) {
+            offsets[cell] = offsets[cell - 1];
         }
+        offsets[0] = 0;
+        graph = new CsrGraph(height, width, offsets, edges);
+    }
+
+    private int rightOf(int y, int x) {
+        int xAdjacent = x + 2 == width - 1 ? x + 1 : x + 2;
+        return xAdjacent < width ? y * width + xAdjacent : -1;
+    }
+
+    private int belowOf(int y, int x) {
+        int yAdjacent = y + 2 == height - 1 ? y + 1 : y + 2;
+        return yAdjacent < height ? yAdjacent * width + x : -1;
+    }
+
+    private void addEdge(int[] offsets, long[] edges, int from, int to, int weight) {
+        edges[offsets[from]++] = GridGraph.pack(weight, to);
+        edges[offsets[to]++] = GridGraph.pack(weight, from);
     }
 
     @Override
@@ -79,15 +104,23 @@ public class GraphMaker implements Serializable {
         return graph.toString();
     }
 
-    public Map<Node, List<Edge>> getGraph() {
+    public GridGraph getGraph() {
         return graph;
     }
 
-    public Node getStart() {
-        return matrix[1][1];
+    public boolean isImplicit() {
+        return implicit;
+    }
+
+    public void setImplicit(boolean implicit) {
+        this.implicit = implicit;
+    }
+
+    public Seeds getSeeds() {
+        return seeds;
     }
 
-    public Node[][] getMatrix() {
-        return matrix;
+    public int getStart() {
+        return graph.getStart();
     }
 }
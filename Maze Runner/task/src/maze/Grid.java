@@ -0,0 +1,111 @@
+package maze;
+
+import java.nio.LongBuffer;
+
+public class Grid {
+    private final int height;
+    private final int width;
+    private final LongBuffer passages;
+
+    public Grid(int height, int width) {
+        this(height, width, LongBuffer.allocate(words(height, width)));
+    }
+
+    public Grid(int height, int width, LongBuffer passages) {
+        this.height = height;
+        this.width = width;
+        this.passages = passages;
+    }
+
+    public static int words(int height, int width) {
+        return (int) (((long) height * width + 63) >>> 6);
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int size() {
+        return height * width;
+    }
+
+    public int id(int y, int x) {
+        return y * width + x;
+    }
+
+    public int row(int cell) {
+        return cell / width;
+    }
+
+    public int column(int cell) {
+        return cell % width;
+    }
+
+    public long byteSize() {
+        return (long) passages.capacity() * Long.BYTES;
+    }
+
+    public boolean isReadOnly() {
+        return passages.isReadOnly();
+    }
+
+    public Grid copy() {
+        LongBuffer copy = LongBuffer.allocate(passages.capacity());
+        LongBuffer source = passages.duplicate();
+        source.clear();
+        copy.put(source);
+        return new Grid(height, width, copy);
+    }
+
+    public LongBuffer getPassages() {
+        return passages.duplicate();
+    }
+
+    public boolean isWall(int cell) {
+        return (passages.get(cell >>> 6) & 1L << cell) == 0;
+    }
+
+    public boolean isWall(int y, int x) {
+        return isWall(id(y, x));
+    }
+
+    public void setPassage(int cell) {
+        int word = cell >>> 6;
+        passages.put(word, passages.get(word) | 1L << cell);
+    }
+
+    public void setWall(int cell) {
+        int word = cell >>> 6;
+        passages.put(word, passages.get(word) & ~(1L << cell));
+    }
+
+    public void connect(int from, int to) {
+        int distance = Math.abs(to - from);
+        setPassage(from);
+        if (distance == 2 || distance == 2 * width) {
+            setPassage(from + (to - from) / 2);
+        }
+        setPassage(to);
+    }
+
+    public int neighbour(int cell, int direction) {
+        int y = row(cell);
+        int x = column(cell);
+        switch (direction) {
+            case 0:
+                return y > 0 ? cell - width : -1;
+            case 1:
+                return x < width - 1 ? cell + 1 : -1;
+            case 2:
+                return y < height - 1 ? cell + width : -1;
+            case 3:
+                return x > 0 ? cell - 1 : -1;
+            default:
+                throw new IllegalArgumentException("Unexpected direction: " + direction);
+        }
+    }
+}
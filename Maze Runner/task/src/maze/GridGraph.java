@@ -0,0 +1,59 @@
+package maze;
+
+public interface GridGraph {
+
+    static long pack(int weight, int target) {
+        return (long) weight << 32 | target & 0xFFFFFFFFL;
+    }
+
+    static String describe(GridGraph graph) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int cell = 0; cell < graph.size(); cell++) {
+            if (graph.degree(cell) == 0) {
+                continue;
+            }
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(cell).append("=[");
+            for (int edge = graph.firstEdge(cell); edge < graph.endEdge(cell); edge++) {
+                if (edge > graph.firstEdge(cell)) {
+                    sb.append(", ");
+                }
+                sb.append(cell).append(" -> ").append(graph.target(edge)).append(" |").append(graph.weight(edge));
+            }
+            sb.append("]");
+        }
+        return sb.append("}").toString();
+    }
+
+    int getHeight();
+
+    int getWidth();
+
+    int size();
+
+    int id(int y, int x);
+
+    int row(int cell);
+
+    int column(int cell);
+
+    int getStart();
+
+    int firstEdge(int cell);
+
+    int endEdge(int cell);
+
+    int degree(int cell);
+
+    int source(int edge);
+
+    int target(int edge);
+
+    int weight(int edge);
+
+    int edgeCount();
+
+    long byteSize();
+}
@@ -0,0 +1,160 @@
+package maze;
+
+public class ImplicitGraph implements GridGraph {
+    private static final int DIRECTIONS = 4;
+
+    private final int height;
+    private final int width;
+    private final long seed;
+    private final int roomRows;
+    private final int roomColumns;
+
+    public ImplicitGraph(int height, int width, long seed) {
+        if ((long) height * width > Integer.MAX_VALUE / DIRECTIONS) {
+            throw new IllegalArgumentException("Maze is too large for an implicit graph: " + height + "x" + width);
+        }
+        this.height = height;
+        this.width = width;
+        this.seed = seed;
+        this.roomRows = (height - 1) / 2;
+        this.roomColumns = (width - 1) / 2;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int size() {
+        return height * width;
+    }
+
+    @Override
+    public int id(int y, int x) {
+        return y * width + x;
+    }
+
+    @Override
+    public int row(int cell) {
+        return cell / width;
+    }
+
+    @Override
+    public int column(int cell) {
+        return cell % width;
+    }
+
+    @Override
+    public int getStart() {
+        return id(1, 1);
+    }
+
+    @Override
+    public int firstEdge(int cell) {
+        return cell * DIRECTIONS;
+    }
+
+    @Override
+    public int endEdge(int cell) {
+        return cell * DIRECTIONS + degree(cell);
+    }
+
+    @Override
+    public int degree(int cell) {
+        int y = cell / width;
+        int x = cell - y * width;
+        int degree = 0;
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            if (neighbour(cell, y, x, direction) != -1) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    @Override
+    public int source(int edge) {
+        return edge / DIRECTIONS;
+    }
+
+    @Override
+    public int target(int edge) {
+        int cell = edge / DIRECTIONS;
+        int skip = edge % DIRECTIONS;
+        int y = cell / width;
+        int x = cell - y * width;
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            int target = neighbour(cell, y, x, direction);
+            if (target != -1 && skip-- == 0) {
+                return target;
+            }
+        }
+        throw new IllegalArgumentException("No such edge: " + edge);
+    }
+
+    @Override
+    public int weight(int edge) {
+        int from = source(edge);
+        int to = target(edge);
+        long key = 2L * Math.min(from, to) + (Math.abs(to - from) < width ? 0 : 1);
+        long hash = seed + key * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ hash >>> 30) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ hash >>> 27) * 0x94D049BB133111EBL;
+        hash ^= hash >>> 31;
+        return (int) (hash >>> 34) + 1;
+    }
+
+    @Override
+    public int edgeCount() {
+        long edges = (long) roomRows * (roomColumns - 1) + (long) roomColumns * (roomRows - 1);
+        if (width % 2 == 0) {
+            edges += roomRows;
+        }
+        if (height % 2 == 0) {
+            edges += roomColumns;
+        }
+        return (int) (2 * Math.max(0, edges));
+    }
+
+    @Override
+    public long byteSize() {
+        return 0;
+    }
+
+    private int neighbour(int cell, int y, int x, int direction) {
+        boolean roomRow = y % 2 == 1 && y < height - 1;
+        boolean roomColumn = x % 2 == 1 && x < width - 1;
+        if (!roomRow || !roomColumn) {
+            if (roomRow && x == width - 2 && direction == 3) {
+                return cell - 1;
+            }
+            if (roomColumn && y == height - 2 && direction == 0) {
+                return cell - width;
+            }
+            return -1;
+        }
+        switch (direction) {
+            case 0:
+                return y >= 3 ? cell - 2 * width : -1;
+            case 1:
+                return x + 2 < width - 1 ? cell + 2 : x + 2 == width - 1 ? cell + 1 : -1;
+            case 2:
+                return y + 2 < height - 1 ? cell + 2 * width : y + 2 == height - 1 ? cell + width : -1;
+            case 3:
+                return x >= 3 ? cell - 2 : -1;
+            default:
+                throw new IllegalArgumentException("Unexpected direction: " + direction);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GridGraph.describe(this);
+    }
+}
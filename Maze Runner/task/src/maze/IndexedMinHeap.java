@@ -0,0 +1,103 @@
+package maze;
+
+import java.util.Arrays;
+
+public class IndexedMinHeap {
+    private static final int ABSENT = -1;
+    private static final int REMOVED = -2;
+
+    private final int[] heap;
+    private final int[] positions;
+    private final int[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isRemoved(int item) {
+        return positions[item] == REMOVED;
+    }
+
+    public boolean offer(int item, int key) {
+        int position = positions[item];
+        if (position == REMOVED) {
+            return false;
+        }
+        if (position == ABSENT) {
+            heap[size] = item;
+            positions[item] = size;
+            keys[item] = key;
+            siftUp(size++);
+            return true;
+        }
+        if (key < keys[item]) {
+            keys[item] = key;
+            siftUp(position);
+            return true;
+        }
+        return false;
+    }
+
+    public int poll() {
+        int min = heap[0];
+        positions[min] = REMOVED;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int position) {
+        int item = heap[position];
+        int key = keys[item];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentItem = heap[parent];
+            if (keys[parentItem] <= key) {
+                break;
+            }
+            heap[position] = parentItem;
+            positions[parentItem] = position;
+            position = parent;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+
+    private void siftDown(int position) {
+        int item = heap[position];
+        int key = keys[item];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int childItem = heap[child];
+            if (key <= keys[childItem]) {
+                break;
+            }
+            heap[position] = childItem;
+            positions[childItem] = position;
+            position = child;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+}
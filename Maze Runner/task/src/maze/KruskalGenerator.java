@@ -0,0 +1,36 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class KruskalGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(GridGraph graph, Grid grid, SplittableRandom random) {
+        int count = 0;
+        int[] from = new int[graph.edgeCount() / 2];
+        int[] to = new int[from.length];
+        long[] order = new long[from.length];
+        for (int cell = 0; cell < graph.size(); cell++) {
+            for (int edge = graph.firstEdge(cell); edge < graph.endEdge(cell); edge++) {
+                int target = graph.target(edge);
+                if (target > cell) {
+                    from[count] = cell;
+                    to[count] = target;
+                    order[count] = GridGraph.pack(graph.weight(edge), count);
+                    count++;
+                }
+            }
+        }
+        Arrays.sort(order, 0, count);
+
+        DisjointSet sets = new DisjointSet(graph.size());
+        grid.setPassage(graph.getStart());
+        for (int i = 0; i < count; i++) {
+            int position = (int) order[i];
+            if (sets.union(from[position], to[position])) {
+                grid.connect(from[position], to[position]);
+            }
+        }
+    }
+}
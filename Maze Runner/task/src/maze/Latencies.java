@@ -0,0 +1,21 @@
+package maze;
+
+import java.util.Arrays;
+
+public class Latencies {
+    private Latencies() { }
+
+    public static String summary(long[] latencies) {
+        Arrays.sort(latencies);
+        return String.format("p50=%.2f p90=%.2f p99=%.2f max=%.2f",
+                percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.90) / 1e6,
+                percentile(latencies, 0.99) / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    public static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,115 @@
+package maze;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class LoadTest {
+    private static final String USAGE = "Usage: loadtest [--url URL] [--requests N] "
+            + "[--concurrency C] [--size S]";
+    private static final Pattern ID = Pattern.compile("\"id\": \"([^\"]+)\"");
+
+    private String url = "http://localhost:8080";
+    private int requests = 1000;
+    private int concurrency = 100;
+    private int size = 31;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final AtomicLong failures = new AtomicLong();
+
+    public static LoadTest parse(String[] args) {
+        LoadTest test = new LoadTest();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i] + "\n" + USAGE);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--url":
+                    test.url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "--requests":
+                    test.requests = Integer.parseInt(value);
+                    break;
+                case "--concurrency":
+                    test.concurrency = Integer.parseInt(value);
+                    break;
+                case "--size":
+                    test.size = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i] + "\n" + USAGE);
+            }
+        }
+        if (test.requests < 1 || test.concurrency < 1 || test.size < 3) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        return test;
+    }
+
+    public void run() throws InterruptedException {
+        long[] latencies = new long[requests];
+        Semaphore permits = new Semaphore(concurrency);
+        CompletableFuture<?>[] sessions = new CompletableFuture<?>[requests];
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            permits.acquire();
+            long begin = System.nanoTime();
+            sessions[i] = session(index).whenComplete((ignored, error) -> {
+                if (error != null && failures.incrementAndGet() == 1) {
+                    System.out.println("First failure: " + error.getCause());
+                }
+                latencies[index] = System.nanoTime() - begin;
+                permits.release();
+            });
+        }
+        CompletableFuture.allOf(sessions).exceptionally(error -> null).join();
+        report(latencies, System.nanoTime() - start);
+    }
+
+    private CompletableFuture<Void> session(int index) {
+        return send("POST", "/mazes?size=" + size + "&seed=" + index)
+                .thenCompose(body -> {
+                    Matcher matcher = ID.matcher(body);
+                    if (!matcher.find()) {
+                        throw new IllegalStateException("No maze id in " + body);
+                    }
+                    String id = matcher.group(1);
+                    return send("POST", "/mazes/" + id + "/solve")
+                            .thenCompose(ignored -> send("GET", "/mazes/" + id + "/render?row=0&col=0&height=20&width=40"))
+                            .thenCompose(ignored -> send("DELETE", "/mazes/" + id));
+                })
+                .thenApply(ignored -> null);
+    }
+
+    private CompletableFuture<String> send(String method, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() >= 300) {
+                        throw new IllegalStateException(method + " " + path + " -> " + response.statusCode());
+                    }
+                    return response.body();
+                });
+    }
+
+    private void report(long[] latencies, long elapsed) {
+        int calls = requests * 4;
+        System.out.printf("%d sessions (%d requests) in %.1f ms: %.1f requests/s, %d failed, concurrency %d%n",
+                requests, calls, elapsed / 1e6, calls / (elapsed / 1e9), failures.get(), concurrency);
+        System.out.println("Session latency ms: " + Latencies.summary(latencies));
+    }
+}
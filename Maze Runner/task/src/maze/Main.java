@@ -1,23 +1,75 @@
 package maze;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class Main {
     private static boolean isMazeLoaded = false;
 
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        try {
+            run(args);
+        } finally {
+            String metrics = System.getProperty("maze.metrics");
+            if (metrics != null) {
+                Files.writeString(Paths.get(metrics), Metrics.toJson());
+            }
+        }
+    }
+
+    private static void run(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            String[] options = Arrays.copyOfRange(args, 1, args.length);
+            try {
+                switch (args[0]) {
+                    case "batch":
+                        BatchRunner.parse(options).run();
+                        return;
+                    case "serve":
+                        MazeServer.parse(options).start();
+                        return;
+                    case "loadtest":
+                        LoadTest.parse(options).run();
+                        return;
+                    default:
+                        break;
+                }
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+        }
         GraphMaker graphMaker = new GraphMaker();
         Maze maze = new Maze(graphMaker);
         Memory memory = new Memory(maze);
         Facade facade = new Facade(graphMaker, maze, memory);
+        String generator = System.getProperty("maze.generator");
+        if (generator != null) {
+            try {
+                facade.setGeneratorType(GeneratorType.valueOf(generator.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown generator " + generator + ". Use one of: " + generatorNames());
+                return;
+            }
+        }
+        facade.setImplicitGraph("implicit".equals(System.getProperty("maze.graph")));
         menu(facade);
     }
 
+    private static String generatorNames() {
+        StringJoiner names = new StringJoiner(", ");
+        for (GeneratorType type : GeneratorType.values()) {
+            names.add(type.name().toLowerCase());
+        }
+        return names.toString();
+    }
+
     private static void menu(Facade facade) throws IOException {
         Scanner scanner = new Scanner(System.in);
         String input = "";
-        List<String> allowedCommand = new ArrayList<>(List.of("1", "2", "0"));
+        List<String> allowedCommand = new ArrayList<>(List.of("1", "2", "0", "metrics"));
         while (!Objects.equals(input, "0")) {
             System.out.println("=== Menu ===");
             System.out.println("1. Generate a new maze");
@@ -57,6 +109,12 @@ public class Main {
                 case "5":
                     facade.findEscape();
                     break;
+                case "metrics":
+                    facade.displayMetrics();
+                    break;
+                case "stats":
+                    facade.displayStats();
+                    break;
             }
         }
         System.out.println("Bye!");
@@ -69,6 +127,7 @@ public class Main {
             allowedCommand.add("3");
             allowedCommand.add("4");
             allowedCommand.add("5");
+            allowedCommand.add("stats");
         }
     }
 }
@@ -1,19 +1,28 @@
 package maze;
 
-import java.io.Serializable;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Maze {
-    private static final String WALL ="\u2588\u2588";
-    private static final String PASS ="  ";
-    private static final String PATH ="//";
+    private static final AtomicLong VERSIONS = new AtomicLong();
 
     private GraphMaker graphMaker;
-    private Map<Node, List<Edge>> graph;
-    private LinkedHashMap<Node, List<Edge>> spanningTree;
-    private List<Node> pathToExit;
+    private GridGraph graph;
+    private Grid grid;
+    private GeneratorType generatorType = GeneratorType.PRIM;
+    private MazeRecipe recipe;
+    private int enter = -1;
+    private int exit = -1;
+    private long version;
+    private long solvedVersion = -1;
+    private int[] pathToExit;
+    private BitSet pathCells;
+    private PathIndex pathIndex;
+    private DistanceField distances;
+    private DistanceMap distanceMap;
+    private MazeStats stats;
 
     private enum Side {
         LEFT,
@@ -29,211 +38,322 @@ public class Maze {
     public void init(GraphMaker graphMaker) {
         this.graphMaker = graphMaker;
         this.graph = graphMaker.getGraph();
-        spanningTree = new LinkedHashMap<>();
-        pathToExit = new ArrayList<>();
+        if (graph != null) {
+            grid = new Grid(graph.getHeight(), graph.getWidth());
+        }
+        recipe = null;
+        invalidate();
     }
 
     public void generate() {
-        generateSpanningTree();
-        prepareMaze();
+        if (graph == null) {
+            throw new IllegalStateException("Make a graph before generating the maze");
+        }
+        Seeds seeds = graphMaker.getSeeds();
+        generateSpanningTree(seeds.tree());
+        prepareMaze(seeds.entrances());
+        invalidate();
+        recipe = new MazeRecipe(generatorType, grid.getHeight(), grid.getWidth(), seeds.getSeed(),
+                graphMaker.isImplicit());
+        graphMaker = null;
+        graph = null;
     }
 
-    private void generateSpanningTree() {
-        PriorityQueue<Edge> queue = new PriorityQueue<>();
-        Set<Node> visitedNodes = new HashSet<>();
-
-        Node start = graphMaker.getStart();
-        spanningTree.putIfAbsent(start, new ArrayList<>());
-        addEdgesToTree(start, queue, visitedNodes);
+    public void generate(MazeRecipe recipe) {
+        GraphMaker recipeGraph = new GraphMaker();
+        recipeGraph.setImplicit(recipe.isImplicit());
+        recipeGraph.make(recipe.getHeight(), recipe.getWidth(), recipe.getSeed());
+        init(recipeGraph);
+        setGenerator(recipe.getGeneratorType());
+        generate();
     }
 
-    private void addEdgesToTree(Node node,
-                                PriorityQueue<Edge> queue,
-                                Set<Node> visited) {
-        List<Edge> edges = graph.get(node);
-        visited.add(node);
-        for (Edge edge : edges) {
-            if (!visited.contains(edge.getTo())) {
-                queue.add(edge);
-                visited.add(edge.getTo());
-            }
-        }
-        while (!queue.isEmpty()) {
-            Edge edge = queue.poll();
-            spanningTree.putIfAbsent(edge.getFrom(), new ArrayList<>());
-            spanningTree.get(edge.getFrom()).add(edge);
-
-            spanningTree.putIfAbsent(edge.getTo(), new ArrayList<>());
-            spanningTree.get(edge.getTo()).add(edge.flip());
-
-            addEdgesToTree(edge.getTo(), queue, visited);
+    private void generateSpanningTree(SplittableRandom random) {
+        try (Operation operation = Operation.start("tree.build", grid.getHeight(), grid.getWidth())) {
+            generatorType.create().generate(graph, grid, random);
+            operation.bytes(grid.byteSize());
         }
     }
 
-    private void prepareMaze() {
-        Node[][] matrix = graphMaker.getMatrix();
-        for (Node[] row : matrix) {
-            for (Node currentNode : row) {
-                if (spanningTree.containsKey(currentNode)) {
-                    currentNode.setPassage();
-                    List<Edge> edges = spanningTree.get(currentNode);
-                    for (var edge : edges) {
-                        edge.getTo().setPassage();
-                        Node nodeOnEdgePosition = edgeToNode(edge);
-                        if (nodeOnEdgePosition != null) {
-                            nodeOnEdgePosition.setPassage();
-                        }
-                    }
-                }
-            }
+    @SuppressWarnings("try")
+    private void prepareMaze(SplittableRandom random) {
+        try (Operation ignored = Operation.start("entrances", grid.getHeight(), grid.getWidth())) {
+            enter = addEnter(Side.LEFT, random);
+            exit = addEnter(Side.RIGHT, random);
         }
-        addEnter(Side.LEFT);
-        addEnter(Side.RIGHT);
     }
 
-    private void addEnter(Side side) {
-        Node[][] matrix = graphMaker.getMatrix();
-        List<Node> nodesToConnect;
+    private int addEnter(Side side, SplittableRandom random) {
+        int height = grid.getHeight();
+        int width = grid.getWidth();
+        List<Integer> nodesToConnect = new ArrayList<>();
         switch (side) {
             case LEFT:
             case RIGHT:
-                int x = side == Side.LEFT ? 1 : matrix[0].length - 2;
-                nodesToConnect = IntStream.range(1, matrix.length - 1)
-                        .mapToObj(y -> matrix[y][x])
-                        .filter(node -> !node.isWall())
-                        .filter(node -> spanningTree.containsKey(node))
-                        .collect(Collectors.toList());
+                int x = side == Side.LEFT ? 1 : width - 2;
+                for (int y = 1; y < height - 1; y++) {
+                    int cell = grid.id(y, x);
+                    if (!grid.isWall(cell) && isNode(cell)) {
+                        nodesToConnect.add(cell);
+                    }
+                }
                 break;
             case TOP:
             case BOTTOM:
-                int y = side == Side.TOP ? 1 : matrix.length - 2;
-                nodesToConnect = Arrays.stream(matrix[y], 1, matrix[0].length - 1)
-                        .filter(node -> !node.isWall())
-                        .filter(node -> spanningTree.containsKey(node))
-                        .collect(Collectors.toList());
+                int y = side == Side.TOP ? 1 : height - 2;
+                for (int column = 1; column < width - 1; column++) {
+                    int cell = grid.id(y, column);
+                    if (!grid.isWall(cell) && isNode(cell)) {
+                        nodesToConnect.add(cell);
+                    }
+                }
                 break;
             default:
                 throw new IllegalStateException("No node found for enter on: " + side);
         }
-        Collections.shuffle(nodesToConnect);
-        connectEnterTo(side, nodesToConnect.get(0));
+        return connectEnterTo(side, nodesToConnect.get(random.nextInt(nodesToConnect.size())));
     }
 
-    private void connectEnterTo(Side side, Node connection) {
-        Node[][] matrix = graphMaker.getMatrix();
-        Node enter;
+    private boolean isNode(int cell) {
+        return graph.degree(cell) > 0 || cell == graph.getStart();
+    }
+
+    private int connectEnterTo(Side side, int connection) {
+        int enter;
         switch (side) {
             case LEFT:
-                enter = matrix[connection.getY()][connection.getX() - 1];
+                enter = connection - 1;
                 break;
             case RIGHT:
-                enter = matrix[connection.getY()][connection.getX() + 1];
+                enter = connection + 1;
                 break;
             case TOP:
-                enter = matrix[connection.getY() - 1][connection.getX()];
+                enter = connection - grid.getWidth();
                 break;
             case BOTTOM:
-                enter = matrix[connection.getY() + 1][connection.getX()];
+                enter = connection + grid.getWidth();
                 break;
             default:
                 throw new IllegalStateException("Unexpected value: " + side);
         }
-        enter.setPassage();
-        Edge edge = new Edge(enter, connection, 1);
-        spanningTree.put(enter, List.of(edge));
-        spanningTree.get(connection).add(edge.flip());
+        grid.setPassage(enter);
+        return enter;
     }
 
-    private Node edgeToNode(Edge edge) {
-        int[] coord = edge.getCoordinates();
-        if (Arrays.stream(coord).anyMatch(x -> x == -1)) {
-            return null;
+    public int[] findShortestPath() {
+        if (solvedVersion != version) {
+            try (Operation operation = Operation.start("solve", grid.getHeight(), grid.getWidth())) {
+                pathToExit = new Solver().findPath(grid, enter, exit);
+                pathCells = new BitSet(grid.size());
+                for (int cell : pathToExit) {
+                    pathCells.set(cell);
+                }
+                solvedVersion = version;
+                operation.bytes((long) pathToExit.length * Integer.BYTES);
+            }
+        } else {
+            Metrics.increment("solve.cached");
         }
-        return graphMaker.getMatrix()[coord[0]][coord[1]];
+        return pathToExit;
     }
 
-    public void findShortestPath() {
-        List<Node> visited = new ArrayList<>();
-        Deque<Node> stack = new ArrayDeque<>();
-        Node enter = getEntrance(1);
-        Node exit = getEntrance(2);
-        stack.push(enter);
-        traverseWithDepthFirst(enter, stack, visited, exit);
-        while (!stack.isEmpty()) {
-            pathToExit.add(stack.pop());
+    public void setWall(int y, int x) {
+        edit(grid.id(y, x), false);
+    }
+
+    public void setPassage(int y, int x) {
+        edit(grid.id(y, x), true);
+    }
+
+    @SuppressWarnings("try")
+    private void edit(int cell, boolean passage) {
+        if (grid.isWall(cell) != passage) {
+            return;
+        }
+        if (grid.isReadOnly()) {
+            grid = grid.copy();
+        }
+        boolean solved = solvedVersion == version;
+        if (solved && distances == null) {
+            distances = new DistanceField(grid, enter);
+        }
+        try (Operation ignored = Operation.start("edit", grid.getHeight(), grid.getWidth())) {
+            int[] previousPath = pathToExit;
+            BitSet previousCells = pathCells;
+            DistanceField field = distances;
+            if (passage) {
+                grid.setPassage(cell);
+            } else {
+                grid.setWall(cell);
+            }
+            invalidate();
+            recipe = null;
+            if (!solved) {
+                return;
+            }
+            distances = field;
+            if (passage) {
+                distances.opened(cell);
+            } else {
+                distances.closed(cell);
+            }
+            for (int node : previousPath) {
+                previousCells.clear(node);
+            }
+            pathToExit = distances.path(exit);
+            pathCells = previousCells;
+            for (int node : pathToExit) {
+                pathCells.set(node);
+            }
+            solvedVersion = version;
+            Metrics.record("edit.touched", distances.getTouched());
         }
-        addEdgesToPath();
     }
 
-    private Node getEntrance(int indexFromEnd) {
-        List<Node> nodes = new ArrayList<>(spanningTree.keySet());
-        return nodes.get(nodes.size() - indexFromEnd);
+    public long byteSize() {
+        return grid.byteSize() + (long) pathToExit.length * Integer.BYTES + pathCells.size() / Byte.SIZE
+                + (graph == null ? 0 : graph.byteSize())
+                + (pathIndex == null ? 0 : pathIndex.byteSize())
+                + (distances == null ? 0 : distances.byteSize())
+                + (distanceMap == null ? 0 : distanceMap.byteSize());
     }
 
-    public void addEdgesToPath() {
-        List<Node> nodesOnEdgesPositions = IntStream.range(0, pathToExit.size() - 2)
-                .mapToObj(i -> new Edge(pathToExit.get(i), pathToExit.get(i + 1), 1))
-                .map(this::edgeToNode)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        pathToExit.addAll(nodesOnEdgesPositions);
+    public long getVersion() {
+        return version;
     }
 
-    private boolean traverseWithDepthFirst(Node node,
-                                           Deque<Node> stack,
-                                           List<Node> visited,
-                                           Node exit) {
-        if (node.equals(exit)) {
-            return true;
-        }
-        visited.add(node);
-        for (Edge edge : spanningTree.get(node)) {
-            Node to = edge.getTo();
-            if (visited.contains(to)) {
-                continue;
+    private void invalidate() {
+        version = VERSIONS.incrementAndGet();
+        pathToExit = new int[0];
+        pathCells = new BitSet();
+        pathIndex = null;
+        distances = null;
+        distanceMap = null;
+        stats = null;
+    }
+
+    public int[] findShortestPath(int from, int to) {
+        if (!grid.isWall(enter)) {
+            PathIndex index = getPathIndex();
+            if (index.isTree() && index.contains(from) && index.contains(to)) {
+                return index.path(from, to);
             }
-            stack.push(to);
-            if (traverseWithDepthFirst(to, stack, visited, exit)) {
-               return true;
+        }
+        return new Solver().findPath(grid, from, to);
+    }
+
+    public PathIndex getPathIndex() {
+        if (pathIndex == null) {
+            pathIndex = new PathIndex(grid, enter);
+        }
+        return pathIndex;
+    }
+
+    public DistanceMap getDistanceMap() {
+        if (distanceMap == null) {
+            try (Operation operation = Operation.start("distance.field", grid.getHeight(), grid.getWidth())) {
+                distanceMap = DistanceMap.compute(grid, enter);
+                operation.bytes(distanceMap.byteSize());
             }
         }
-        stack.pop();
-        return false;
+        return distanceMap;
+    }
+
+    public MazeStats getStats() {
+        if (stats == null) {
+            stats = analyze(new MazeAnalyzer());
+        }
+        return stats;
+    }
+
+    @SuppressWarnings("try")
+    public MazeStats analyze(MazeAnalyzer analyzer) {
+        try (Operation ignored = Operation.start("analyze", grid.getHeight(), grid.getWidth())) {
+            stats = analyzer.analyze(grid, enter, exit);
+            return stats;
+        }
+    }
+
+    public long exportHeatmap(OutputStream out, int scale) throws IOException {
+        DistanceMap map = getDistanceMap();
+        try (Operation operation = Operation.start("export.heatmap", grid.getHeight(), grid.getWidth())) {
+            long bytes = map.writeHeatmap(out, scale);
+            operation.bytes(bytes);
+            return bytes;
+        }
+    }
+
+    public void render(OutputStream out) throws IOException {
+        try (Operation operation = Operation.start("render", grid.getHeight(), grid.getWidth())) {
+            operation.bytes(new MazeRenderer(grid, pathCells).render(out));
+        }
+    }
+
+    public void render(OutputStream out, int row, int column, int height, int width) throws IOException {
+        try (Operation operation = Operation.start("render.viewport", height, width)) {
+            operation.bytes(MazeRenderer.viewport(MazeRenderer.cells(grid, pathCells), row, column, height, width)
+                    .render(out));
+        }
+    }
+
+    public String render(int row, int column, int height, int width) {
+        return MazeRenderer.viewport(MazeRenderer.cells(grid, pathCells), row, column, height, width).render();
+    }
+
+    public long exportPng(OutputStream out, int scale) throws IOException {
+        try (Operation operation = Operation.start("export.png", grid.getHeight(), grid.getWidth())) {
+            long bytes = new PngExporter(MazeRenderer.cells(grid, pathCells), scale).write(out);
+            operation.bytes(bytes);
+            return bytes;
+        }
     }
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (Node[] row : graphMaker.getMatrix()) {
-            Arrays.stream(row)
-                    .map(node -> pathToExit.contains(node) ? PATH : node.isWall() ? WALL : PASS)
-                    .forEach(sb::append);
-            sb.append("\n");
-        }
-        return sb.toString();
+        return new MazeRenderer(grid, pathCells).render();
+    }
+
+    public void setGenerator(GeneratorType generatorType) {
+        this.generatorType = generatorType;
+    }
+
+    public MazeRecipe getRecipe() {
+        return recipe;
     }
 
     public MazeState getState() {
-        return new MazeState(graphMaker, spanningTree);
+        return new MazeState(grid, enter, exit);
     }
 
     public void setState(MazeState state) {
-        graphMaker = state.graphMaker;
-        graph = state.graphMaker.getGraph();
-        spanningTree = state.spanningTree;
-        pathToExit = new ArrayList<>();
+        grid = state.grid;
+        enter = state.enter;
+        exit = state.exit;
+        recipe = null;
+        invalidate();
     }
 
-    static class MazeState implements Serializable {
-        private static final long serialVersionUID = 7076557791987400397L;
+    public static class MazeState {
+        private final Grid grid;
+        private final int enter;
+        private final int exit;
+
+        public MazeState(Grid grid, int enter, int exit) {
+            this.grid = grid;
+            this.enter = enter;
+            this.exit = exit;
+        }
+
+        public Grid getGrid() {
+            return grid;
+        }
 
-        private final GraphMaker graphMaker;
-        private final LinkedHashMap<Node, List<Edge>> spanningTree;
+        public int getEnter() {
+            return enter;
+        }
 
-        public MazeState(GraphMaker graphMaker,
-                         LinkedHashMap<Node, List<Edge>> spanningTree) {
-            this.graphMaker = graphMaker;
-            this.spanningTree = spanningTree;
+        public int getExit() {
+            return exit;
         }
     }
 }
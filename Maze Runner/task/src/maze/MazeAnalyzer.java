@@ -0,0 +1,110 @@
+package maze;
+
+import java.util.Arrays;
+
+public class MazeAnalyzer {
+    private int[] distance = new int[0];
+    private int[] run = new int[0];
+    private int[] queue = new int[0];
+    private final int[] junctions = new int[5];
+    private int deadEnds;
+    private int corridors;
+    private int longestCorridor;
+    private int straightCells;
+    private int turnCells;
+
+    public MazeStats analyze(Grid grid, int enter, int exit) {
+        if (enter < 0 || grid.isWall(enter)) {
+            throw new IllegalArgumentException("Maze has no open entrance");
+        }
+        ensureCapacity(grid.size());
+        Arrays.fill(junctions, 0);
+        deadEnds = 0;
+        corridors = 0;
+        longestCorridor = 0;
+        straightCells = 0;
+        turnCells = 0;
+
+        int count = survey(grid, enter, exit);
+        int solution = exit >= 0 && distance[exit] >= 0 ? distance[exit] : -1;
+        int farthest = queue[count - 1];
+        search(grid, farthest);
+        int diameter = distance[queue[count - 1]];
+        return new MazeStats(count, deadEnds, junctions, solution, diameter,
+                corridors, longestCorridor, straightCells, turnCells);
+    }
+
+    private void ensureCapacity(int size) {
+        if (distance.length < size) {
+            distance = new int[size];
+            run = new int[size];
+            queue = new int[size];
+        }
+    }
+
+    private int survey(Grid grid, int enter, int exit) {
+        Arrays.fill(distance, 0, grid.size(), -1);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = enter;
+        distance[enter] = 0;
+        run[enter] = 0;
+        while (head < tail) {
+            int cell = queue[head++];
+            int degree = 0;
+            int directions = 0;
+            int parentRun = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(cell, direction);
+                if (next == -1 || grid.isWall(next)) {
+                    continue;
+                }
+                degree++;
+                directions |= 1 << direction;
+                if (distance[next] == -1) {
+                    distance[next] = distance[cell] + 1;
+                    queue[tail++] = next;
+                } else if (distance[next] < distance[cell]) {
+                    parentRun = run[next];
+                }
+            }
+            junctions[degree]++;
+            if (degree == 1 && cell != enter && cell != exit) {
+                deadEnds++;
+            }
+            if (degree == 2) {
+                if (directions == 0b0101 || directions == 0b1010) {
+                    straightCells++;
+                } else {
+                    turnCells++;
+                }
+                run[cell] = parentRun + 1;
+                if (parentRun == 0) {
+                    corridors++;
+                }
+                longestCorridor = Math.max(longestCorridor, run[cell]);
+            } else {
+                run[cell] = 0;
+            }
+        }
+        return tail;
+    }
+
+    private void search(Grid grid, int source) {
+        Arrays.fill(distance, 0, grid.size(), -1);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        distance[source] = 0;
+        while (head < tail) {
+            int cell = queue[head++];
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(cell, direction);
+                if (next != -1 && distance[next] == -1 && !grid.isWall(next)) {
+                    distance[next] = distance[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("maze.Operation")
+@Label("Maze Operation")
+@Category("Maze")
+@Description("Graph build, tree build, entrance placement, solve, render, serialize or deserialize")
+@StackTrace(false)
+public class MazeEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Height")
+    int height;
+
+    @Label("Width")
+    int width;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,251 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class MazeFile {
+    public static final int MAGIC = 0x4D415A45;
+    public static final int RECIPE_MAGIC = 0x4D415A53;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+    public static final int RECIPE_V1 = 1;
+    public static final int RECIPE_V2 = 2;
+    public static final int RECIPE_V3 = 3;
+    public static final int RECIPE_VERSION = RECIPE_V3;
+    public static final int RECIPE_SIZE = 28;
+    private static final int RECIPE_V1_SIZE = 25;
+    private static final int RECIPE_V2_SIZE = 26;
+    private static final int UNVERSIONED_ALGORITHM = 1;
+    private static final int IMPLICIT_GRAPH = 1;
+    private static final int CHUNK_WORDS = 1 << 13;
+
+    private MazeFile() { }
+
+    public static void write(Maze.MazeState state, Path path) throws IOException {
+        Path temporary = temporaryFor(path);
+        try {
+            writeTo(state, temporary);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeTo(Maze.MazeState state, Path path) throws IOException {
+        Grid grid = state.getGrid();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE_NEW)) {
+            writeHeader(channel, grid.getHeight(), grid.getWidth(), state.getEnter(), state.getExit());
+
+            LongBuffer passages = grid.getPassages();
+            passages.rewind();
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_WORDS * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (passages.hasRemaining()) {
+                chunk.clear();
+                while (chunk.hasRemaining() && passages.hasRemaining()) {
+                    chunk.putLong(passages.get());
+                }
+                chunk.flip();
+                writeFully(channel, chunk);
+            }
+        }
+    }
+
+    public static RowSink rowSink(Path path) {
+        return new RowWriter(path);
+    }
+
+    public static Maze.MazeState map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Truncated maze file: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a maze file: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported maze file version: " + version);
+            }
+            int height = buffer.getInt();
+            int width = buffer.getInt();
+            int enter = buffer.getInt();
+            int exit = buffer.getInt();
+            if (height <= 0 || width <= 0 || (long) height * width > Integer.MAX_VALUE) {
+                throw new IOException("Invalid maze size in " + path + ": " + height + "x" + width);
+            }
+            int size = height * width;
+            if (enter < 0 || enter >= size || exit < 0 || exit >= size) {
+                throw new IOException("Invalid entrances in " + path + ": " + enter + ", " + exit);
+            }
+            int words = Grid.words(height, width);
+            if (buffer.remaining() < (long) words * Long.BYTES) {
+                throw new IOException("Truncated maze file: " + path);
+            }
+            LongBuffer passages = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            passages.limit(words);
+            return new Maze.MazeState(new Grid(height, width, passages), enter, exit);
+        }
+    }
+
+    public static void writeRecipe(MazeRecipe recipe, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECIPE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(RECIPE_MAGIC)
+                .putInt(RECIPE_VERSION)
+                .put((byte) recipe.getGeneratorType().getId())
+                .put((byte) (recipe.isImplicit() ? IMPLICIT_GRAPH : 0))
+                .putShort((short) recipe.getGeneratorType().getVersion())
+                .putInt(recipe.getHeight())
+                .putInt(recipe.getWidth())
+                .putLong(recipe.getSeed())
+                .flip();
+        Path temporary = temporaryFor(path);
+        try {
+            Files.write(temporary, buffer.array(), StandardOpenOption.CREATE_NEW);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public static MazeRecipe readRecipe(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < RECIPE_V1_SIZE || buffer.getInt() != RECIPE_MAGIC) {
+            throw new IOException("Not a maze recipe: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != RECIPE_V1 && version != RECIPE_V2 && version != RECIPE_V3) {
+            throw new IOException("Unsupported maze recipe version: " + version);
+        }
+        int size = version == RECIPE_V1 ? RECIPE_V1_SIZE : version == RECIPE_V2 ? RECIPE_V2_SIZE : RECIPE_SIZE;
+        if (buffer.capacity() < size) {
+            throw new IOException("Truncated maze recipe: " + path);
+        }
+        int generator = buffer.get();
+        boolean implicit = version != RECIPE_V1 && (buffer.get() & IMPLICIT_GRAPH) != 0;
+        int algorithm = version == RECIPE_V3 ? buffer.getShort() : UNVERSIONED_ALGORITHM;
+        GeneratorType type;
+        try {
+            type = GeneratorType.byId(generator);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown generator in maze recipe: " + generator);
+        }
+        if (algorithm != type.getVersion()) {
+            throw new IOException("Maze recipe " + path + " needs " + type + " version " + algorithm
+                    + ", but this build has version " + type.getVersion());
+        }
+        return new MazeRecipe(type, buffer.getInt(), buffer.getInt(), buffer.getLong(), implicit);
+    }
+
+    public static int readMagic(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) != -1) {
+                continue;
+            }
+            return magic.hasRemaining() ? 0 : magic.getInt(0);
+        }
+    }
+
+    private static Path temporaryFor(Path path) {
+        return path.resolveSibling(path.getFileName() + "." + System.nanoTime() + ".tmp");
+    }
+
+    private static void writeHeader(FileChannel channel, int height, int width,
+                                    int enter, int exit) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(height)
+                .putInt(width)
+                .putInt(enter)
+                .putInt(exit)
+                .flip();
+        writeFully(channel, header);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static class RowWriter implements RowSink {
+        private final Path path;
+        private Path temporary;
+        private FileChannel channel;
+        private ByteBuffer chunk;
+        private int width;
+        private long word;
+        private int bits;
+
+        RowWriter(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public void begin(int height, int width, int enterRow, int exitRow) throws IOException {
+            if ((long) height * width > Integer.MAX_VALUE) {
+                throw new IOException("Maze is too large for the file format: " + height + "x" + width);
+            }
+            this.width = width;
+            temporary = temporaryFor(path);
+            channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+            chunk = ByteBuffer.allocate(CHUNK_WORDS * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            writeHeader(channel, height, width, enterRow * width, exitRow * width + width - 1);
+        }
+
+        @Override
+        public void row(long[] passages) throws IOException {
+            int left = width;
+            for (int i = 0; left > 0; i++) {
+                int count = Math.min(64, left);
+                long value = count == 64 ? passages[i] : passages[i] & (1L << count) - 1;
+                word |= value << bits;
+                if (bits + count >= 64) {
+                    put(word);
+                    word = bits == 0 ? 0 : value >>> (64 - bits);
+                    bits = bits + count - 64;
+                } else {
+                    bits += count;
+                }
+                left -= count;
+            }
+        }
+
+        @Override
+        public void end() throws IOException {
+            try {
+                if (bits > 0) {
+                    put(word);
+                }
+                chunk.flip();
+                writeFully(channel, chunk);
+                channel.close();
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private void put(long value) throws IOException {
+            if (!chunk.hasRemaining()) {
+                chunk.flip();
+                writeFully(channel, chunk);
+                chunk.clear();
+            }
+            chunk.putLong(value);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package maze;
+
+import java.util.SplittableRandom;
+
+public interface MazeGenerator {
+
+    void generate(GridGraph graph, Grid grid, SplittableRandom random);
+}
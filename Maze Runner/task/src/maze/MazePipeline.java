@@ -0,0 +1,211 @@
+package maze;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MazePipeline {
+    private static final Job END = new Job(-1, 0, 0);
+
+    private final GeneratorType generatorType;
+    private final Path output;
+    private final int capacity;
+    private final List<Stage> stages = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private boolean implicitGraph;
+    private long[] latencies;
+
+    private static class Job {
+        private final int index;
+        private final int size;
+        private final long seed;
+        private long start;
+        private Maze maze;
+        private byte[] text;
+
+        Job(int index, int size, long seed) {
+            this.index = index;
+            this.size = size;
+            this.seed = seed;
+        }
+    }
+
+    private interface Step {
+        void apply(Job job) throws IOException;
+    }
+
+    private class Stage {
+        private final String name;
+        private final int threads;
+        private final Step step;
+        private final BlockingQueue<Job> input;
+        private final AtomicInteger running;
+        private Stage next;
+        private ExecutorService pool;
+
+        Stage(String name, int threads, Step step) {
+            this.name = name;
+            this.threads = threads;
+            this.step = step;
+            this.input = new ArrayBlockingQueue<>(capacity);
+            this.running = new AtomicInteger(threads);
+        }
+
+        void start() {
+            pool = Executors.newFixedThreadPool(threads, task -> new Thread(task, "maze-" + name));
+            for (int i = 0; i < threads; i++) {
+                pool.execute(this::work);
+            }
+            pool.shutdown();
+        }
+
+        private void work() {
+            try {
+                while (true) {
+                    Job job = input.take();
+                    if (job == END) {
+                        input.put(END);
+                        return;
+                    }
+                    process(job);
+                }
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                if (running.decrementAndGet() == 0 && next != null) {
+                    next.close();
+                }
+            }
+        }
+
+        private void process(Job job) throws InterruptedException {
+            if (failure.get() == null) {
+                long begin = System.nanoTime();
+                try {
+                    step.apply(job);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+                Metrics.time("pipeline." + name, System.nanoTime() - begin);
+            }
+            if (next != null) {
+                next.offer(job);
+            } else {
+                latencies[job.index] = System.nanoTime() - job.start;
+            }
+        }
+
+        void offer(Job job) throws InterruptedException {
+            if (input.offer(job)) {
+                return;
+            }
+            long begin = System.nanoTime();
+            while (!input.offer(job, 100, TimeUnit.MILLISECONDS)) {
+                if (running.get() == 0) {
+                    return;
+                }
+            }
+            Metrics.time("pipeline." + name + ".blocked", System.nanoTime() - begin);
+        }
+
+        void close() {
+            boolean interrupted = Thread.interrupted();
+            while (true) {
+                try {
+                    offer(END);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public MazePipeline(GeneratorType generatorType, Path output, int capacity,
+                        int generators, int solvers, int renderers, int writers) {
+        if (capacity < 1 || generators < 1 || solvers < 1 || renderers < 1 || writers < 1) {
+            throw new IllegalArgumentException("Every stage needs at least one thread and one queue slot");
+        }
+        this.generatorType = generatorType;
+        this.output = output;
+        this.capacity = capacity;
+        stages.add(new Stage("generate", generators, this::generate));
+        stages.add(new Stage("solve", solvers, job -> job.maze.findShortestPath()));
+        stages.add(new Stage("render", renderers, this::render));
+        stages.add(new Stage("persist", writers, this::persist));
+        for (int i = 0; i + 1 < stages.size(); i++) {
+            stages.get(i).next = stages.get(i + 1);
+        }
+    }
+
+    public void setImplicitGraph(boolean implicitGraph) {
+        this.implicitGraph = implicitGraph;
+    }
+
+    public long[] run(int[] sizes, long[] seeds) throws IOException, InterruptedException {
+        latencies = new long[sizes.length];
+        for (Stage stage : stages) {
+            stage.start();
+        }
+        Stage first = stages.get(0);
+        for (int i = 0; i < sizes.length && failure.get() == null; i++) {
+            Job job = new Job(i, sizes[i], seeds[i]);
+            job.start = System.nanoTime();
+            first.offer(job);
+        }
+        first.close();
+        for (Stage stage : stages) {
+            while (!stage.pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                continue;
+            }
+        }
+        Throwable error = failure.get();
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        if (error != null) {
+            throw new IOException("Pipeline failed", error);
+        }
+        return latencies;
+    }
+
+    private void generate(Job job) {
+        GraphMaker graphMaker = new GraphMaker();
+        graphMaker.setImplicit(implicitGraph);
+        graphMaker.make(job.size, job.size, job.seed);
+        Maze maze = new Maze(graphMaker);
+        maze.setGenerator(generatorType);
+        maze.generate();
+        job.maze = maze;
+    }
+
+    private void render(Job job) throws IOException {
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        job.maze.render(text);
+        job.text = text.toByteArray();
+    }
+
+    private void persist(Job job) throws IOException {
+        String name = String.format("maze-%06d", job.index);
+        new Memory(job.maze).saveToFile(output.resolve(name + ".bin").toString());
+        Files.write(output.resolve(name + ".txt"), job.text);
+        job.maze = null;
+        job.text = null;
+    }
+}
@@ -0,0 +1,41 @@
+package maze;
+
+public class MazeRecipe {
+    private final GeneratorType generatorType;
+    private final int height;
+    private final int width;
+    private final long seed;
+    private final boolean implicit;
+
+    public MazeRecipe(GeneratorType generatorType, int height, int width, long seed) {
+        this(generatorType, height, width, seed, false);
+    }
+
+    public MazeRecipe(GeneratorType generatorType, int height, int width, long seed, boolean implicit) {
+        this.generatorType = generatorType;
+        this.height = height;
+        this.width = width;
+        this.seed = seed;
+        this.implicit = implicit;
+    }
+
+    public GeneratorType getGeneratorType() {
+        return generatorType;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isImplicit() {
+        return implicit;
+    }
+}
@@ -0,0 +1,282 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class MazeRegistry {
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final long byteBudget;
+    private final Path spillDirectory;
+    private final LinkedHashMap<String, Maze> hot = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> sizes = new HashMap<>();
+    private final Map<String, Integer> pins = new HashMap<>();
+    private final Map<String, Maze> spilling = new HashMap<>();
+    private final Map<String, Path> spilled = new HashMap<>();
+    private long spills;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static class Spill {
+        private final String id;
+        private final Maze maze;
+        private final Path file;
+
+        Spill(String id, Maze maze, Path file) {
+            this.id = id;
+            this.maze = maze;
+            this.file = file;
+        }
+    }
+
+    public MazeRegistry(long byteBudget, Path spillDirectory) throws IOException {
+        this.byteBudget = byteBudget;
+        this.spillDirectory = Files.createDirectories(spillDirectory);
+    }
+
+    public void put(String id, Maze.MazeState state) throws IOException {
+        Maze maze = new Maze(new GraphMaker());
+        maze.setState(state);
+        put(id, maze);
+    }
+
+    public void put(String id, Maze maze) throws IOException {
+        checkId(id);
+        Path stale;
+        List<Spill> victims;
+        synchronized (this) {
+            hot.put(id, maze);
+            spilling.remove(id);
+            stale = spilled.remove(id);
+            track(id, maze);
+            victims = selectVictims(id);
+        }
+        deleteIfExists(stale);
+        spill(victims);
+    }
+
+    public Maze get(String id) throws IOException {
+        return lookup(id, false);
+    }
+
+    public Maze acquire(String id) throws IOException {
+        return lookup(id, true);
+    }
+
+    public void release(String id, Maze maze) throws IOException {
+        List<Spill> victims;
+        synchronized (this) {
+            Integer count = pins.get(id);
+            if (count != null) {
+                if (count == 1) {
+                    pins.remove(id);
+                } else {
+                    pins.put(id, count - 1);
+                }
+            }
+            if (hot.get(id) != maze) {
+                return;
+            }
+            track(id, maze);
+            victims = selectVictims(id);
+        }
+        spill(victims);
+    }
+
+    public boolean remove(String id) throws IOException {
+        checkId(id);
+        Path file;
+        boolean removed;
+        synchronized (this) {
+            removed = hot.remove(id) != null;
+            removed |= spilling.remove(id) != null;
+            file = spilled.remove(id);
+            untrack(id);
+        }
+        deleteIfExists(file);
+        return removed || file != null;
+    }
+
+    public synchronized boolean contains(String id) {
+        return hot.containsKey(id) || spilling.containsKey(id) || spilled.containsKey(id);
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getHotCount() {
+        return hot.size() + spilling.size();
+    }
+
+    public synchronized int getSpilledCount() {
+        return spilled.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private Maze lookup(String id, boolean pin) throws IOException {
+        checkId(id);
+        boolean counted = false;
+        while (true) {
+            Path file;
+            synchronized (this) {
+                Maze maze = hot.get(id);
+                if (maze == null) {
+                    maze = spilling.remove(id);
+                    if (maze != null) {
+                        hot.put(id, maze);
+                        track(id, maze);
+                    }
+                }
+                if (maze != null) {
+                    if (!counted) {
+                        hits++;
+                    }
+                    if (pin) {
+                        pins.merge(id, 1, Integer::sum);
+                    }
+                    return maze;
+                }
+                if (!counted) {
+                    misses++;
+                    counted = true;
+                }
+                file = spilled.get(id);
+                if (file == null) {
+                    return null;
+                }
+            }
+            Maze loaded;
+            try {
+                loaded = load(file);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            List<Spill> victims;
+            synchronized (this) {
+                if (spilled.get(id) != file) {
+                    continue;
+                }
+                spilled.remove(id);
+                hot.put(id, loaded);
+                track(id, loaded);
+                if (pin) {
+                    pins.merge(id, 1, Integer::sum);
+                }
+                victims = selectVictims(id);
+            }
+            deleteIfExists(file);
+            spill(victims);
+            return loaded;
+        }
+    }
+
+    private Maze load(Path file) throws IOException {
+        Maze loaded = new Maze(new GraphMaker());
+        new Memory(loaded).loadMazeFile(file.toString());
+        Maze maze = new Maze(new GraphMaker());
+        maze.setState(loaded.getState());
+        return maze;
+    }
+
+    private List<Spill> selectVictims(String keep) {
+        List<Spill> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, Maze>> eldest = hot.entrySet().iterator();
+        while (bytes > byteBudget && eldest.hasNext()) {
+            Map.Entry<String, Maze> entry = eldest.next();
+            String id = entry.getKey();
+            if (id.equals(keep) || pins.containsKey(id)) {
+                continue;
+            }
+            victims.add(new Spill(id, entry.getValue(), spillDirectory.resolve(id + "-" + ++spills + ".maze")));
+            spilling.put(id, entry.getValue());
+            eldest.remove();
+            untrack(id);
+        }
+        return victims;
+    }
+
+    private void spill(List<Spill> victims) throws IOException {
+        IOException failure = null;
+        for (Spill victim : victims) {
+            try {
+                synchronized (victim.maze) {
+                    new Memory(victim.maze).saveToFile(victim.file.toString());
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    if (spilling.remove(victim.id, victim.maze)) {
+                        hot.put(victim.id, victim.maze);
+                        track(victim.id, victim.maze);
+                    }
+                }
+                deleteIfExists(victim.file);
+                if (failure == null) {
+                    failure = e;
+                }
+                continue;
+            }
+            boolean kept;
+            synchronized (this) {
+                kept = spilling.remove(victim.id, victim.maze);
+                if (kept) {
+                    spilled.put(victim.id, victim.file);
+                    evictions++;
+                }
+            }
+            if (!kept) {
+                deleteIfExists(victim.file);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void track(String id, Maze maze) {
+        long size = maze.byteSize();
+        Long previous = sizes.put(id, size);
+        bytes += size - (previous == null ? 0 : previous);
+    }
+
+    private void untrack(String id) {
+        Long previous = sizes.remove(id);
+        if (previous != null) {
+            bytes -= previous;
+        }
+    }
+
+    private static void deleteIfExists(Path file) throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void checkId(String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid maze id: " + id);
+        }
+    }
+}
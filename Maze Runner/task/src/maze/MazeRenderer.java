@@ -0,0 +1,206 @@
+package maze;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+public class MazeRenderer {
+    private static final String WALL ="\u2588\u2588";
+    private static final String PASS ="  ";
+    private static final String PATH ="//";
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int MAX_TOKEN_BYTES = 6;
+
+    private static final char[][] CHARS = {
+            PASS.toCharArray(), WALL.toCharArray(), PATH.toCharArray()
+    };
+    private static final byte[][] BYTES = {
+            PASS.getBytes(StandardCharsets.UTF_8),
+            WALL.getBytes(StandardCharsets.UTF_8),
+            PATH.getBytes(StandardCharsets.UTF_8)
+    };
+
+    private final CellStore cells;
+
+    private interface ByteSink {
+        void write(byte[] chunk, int length) throws IOException;
+    }
+
+    public MazeRenderer(CellStore cells) {
+        this.cells = cells;
+    }
+
+    public MazeRenderer(Grid grid, BitSet path) {
+        this(cells(grid, path));
+    }
+
+    public static CellStore cells(Grid grid, BitSet path) {
+        return new CellStore() {
+            @Override
+            public int getHeight() {
+                return grid.getHeight();
+            }
+
+            @Override
+            public int getWidth() {
+                return grid.getWidth();
+            }
+
+            @Override
+            public boolean isWall(int y, int x) {
+                return grid.isWall(y, x);
+            }
+
+            @Override
+            public boolean isPath(int y, int x) {
+                return path.get(grid.id(y, x));
+            }
+        };
+    }
+
+    public static MazeRenderer viewport(CellStore cells, int row, int column, int height, int width) {
+        if (row < 0 || column < 0 || height < 0 || width < 0) {
+            throw new IllegalArgumentException("Invalid viewport: " + row + ", " + column + ", "
+                    + height + "x" + width);
+        }
+        int rows = Math.max(0, Math.min(height, cells.getHeight() - row));
+        int columns = Math.max(0, Math.min(width, cells.getWidth() - column));
+        return new MazeRenderer(new CellStore() {
+            @Override
+            public int getHeight() {
+                return rows;
+            }
+
+            @Override
+            public int getWidth() {
+                return columns;
+            }
+
+            @Override
+            public boolean isWall(int y, int x) {
+                return cells.isWall(row + y, column + x);
+            }
+
+            @Override
+            public boolean isPath(int y, int x) {
+                return cells.isPath(row + y, column + x);
+            }
+        });
+    }
+
+    public String render() {
+        long capacity = (long) cells.getHeight() * (cells.getWidth() * 2 + 1);
+        StringWriter writer = new StringWriter((int) Math.min(Integer.MAX_VALUE - 8, capacity));
+        try {
+            render(writer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    public void render(Writer writer) throws IOException {
+        char[] chunk = new char[CHUNK_SIZE];
+        int length = 0;
+        for (int y = 0; y < cells.getHeight(); y++) {
+            for (int x = 0; x < cells.getWidth(); x++) {
+                if (length + 2 > CHUNK_SIZE) {
+                    writer.write(chunk, 0, length);
+                    length = 0;
+                }
+                char[] token = CHARS[token(y, x)];
+                chunk[length++] = token[0];
+                chunk[length++] = token[1];
+            }
+            if (length == CHUNK_SIZE) {
+                writer.write(chunk, 0, length);
+                length = 0;
+            }
+            chunk[length++] = '\n';
+        }
+        writer.write(chunk, 0, length);
+        writer.flush();
+    }
+
+    public long render(OutputStream out) throws IOException {
+        long bytes = render((chunk, length) -> out.write(chunk, 0, length));
+        out.flush();
+        return bytes;
+    }
+
+    public long render(WritableByteChannel channel) throws IOException {
+        return render((chunk, length) -> {
+            ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    private long render(ByteSink sink) throws IOException {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        int length = 0;
+        long bytes = 0;
+        for (int y = 0; y < cells.getHeight(); y++) {
+            for (int x = 0; x < cells.getWidth(); x++) {
+                if (length + MAX_TOKEN_BYTES > CHUNK_SIZE) {
+                    sink.write(chunk, length);
+                    bytes += length;
+                    length = 0;
+                }
+                byte[] token = BYTES[token(y, x)];
+                for (byte b : token) {
+                    chunk[length++] = b;
+                }
+            }
+            if (length == CHUNK_SIZE) {
+                sink.write(chunk, length);
+                bytes += length;
+                length = 0;
+            }
+            chunk[length++] = '\n';
+        }
+        sink.write(chunk, length);
+        return bytes + length;
+    }
+
+    public static RowSink textSink(OutputStream out) {
+        return new RowSink() {
+            private byte[] line;
+            private int width;
+
+            @Override
+            public void begin(int height, int width, int enterRow, int exitRow) {
+                this.width = width;
+                this.line = new byte[width * MAX_TOKEN_BYTES + 1];
+            }
+
+            @Override
+            public void row(long[] passages) throws IOException {
+                int length = 0;
+                for (int x = 0; x < width; x++) {
+                    boolean wall = (passages[x >>> 6] & 1L << x) == 0;
+                    for (byte b : BYTES[wall ? 1 : 0]) {
+                        line[length++] = b;
+                    }
+                }
+                line[length++] = '\n';
+                out.write(line, 0, length);
+            }
+
+            @Override
+            public void end() throws IOException {
+                out.flush();
+            }
+        };
+    }
+
+    private int token(int y, int x) {
+        return cells.isPath(y, x) ? 2 : cells.isWall(y, x) ? 1 : 0;
+    }
+}
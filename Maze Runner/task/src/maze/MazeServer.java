@@ -0,0 +1,361 @@
+package maze;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+public class MazeServer {
+    private static final String USAGE = "Usage: serve [--port P] [--threads T|virtual] "
+            + "[--max-size N] [--budget BYTES] [--data DIR]";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final Set<String> METHODS = Set.of("GET", "POST", "DELETE");
+
+    private int port = 8080;
+    private int threads;
+    private int maxSize = 1001;
+    private long budget = 256L << 20;
+    private Path data = Paths.get("maze-data");
+
+    private final AtomicLong sessions = new AtomicLong();
+    private MazeRegistry registry;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @SuppressWarnings("serial")
+    private static class HttpException extends RuntimeException {
+        private final int status;
+
+        HttpException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    public static MazeServer parse(String[] args) {
+        MazeServer server = new MazeServer();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i] + "\n" + USAGE);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--port":
+                    server.port = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    server.threads = value.equals("virtual") ? 0 : Integer.parseInt(value);
+                    break;
+                case "--max-size":
+                    server.maxSize = Integer.parseInt(value);
+                    break;
+                case "--budget":
+                    server.budget = Long.parseLong(value);
+                    break;
+                case "--data":
+                    server.data = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i] + "\n" + USAGE);
+            }
+        }
+        if (server.port < 0 || server.threads < 0 || server.maxSize < 3 || server.budget < 0) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        return server;
+    }
+
+    public void start() throws IOException {
+        registry = new MazeRegistry(budget, data.resolve("sessions"));
+        Files.createDirectories(data.resolve("saved"));
+        executor = threads > 0 ? Executors.newFixedThreadPool(threads) : perRequestExecutor();
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 4096);
+        server.createContext("/mazes", this::handleMazes);
+        server.createContext("/metrics", exchange -> handle(exchange, () -> {
+            requireMethod(exchange, "GET");
+            return respond(exchange, 200, "application/json", Metrics.toJson());
+        }));
+        server.setExecutor(executor);
+        server.start();
+        System.out.println("Listening on http://localhost:" + getPort());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static ExecutorService perRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private interface Handler {
+        int run() throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) {
+        long start = System.nanoTime();
+        int status;
+        try {
+            try {
+                status = handler.run();
+            } catch (HttpException e) {
+                status = respond(exchange, e.status, "text/plain", e.getMessage() + "\n");
+            } catch (IllegalArgumentException e) {
+                status = respond(exchange, 400, "text/plain", e.getMessage() + "\n");
+            } catch (IOException | RuntimeException e) {
+                status = respond(exchange, 500, "text/plain", e + "\n");
+            }
+        } catch (IOException e) {
+            status = -1;
+        } finally {
+            exchange.close();
+        }
+        String method = exchange.getRequestMethod();
+        Metrics.time("http." + (METHODS.contains(method) ? method : "other"), System.nanoTime() - start);
+        Metrics.increment("http.status." + status);
+    }
+
+    private void handleMazes(HttpExchange exchange) {
+        handle(exchange, () -> {
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            if (!parts[1].equals("mazes")) {
+                throw new HttpException(404, "Unknown path " + exchange.getRequestURI().getPath());
+            }
+            Map<String, String> query = query(exchange);
+            if (parts.length == 2) {
+                requireMethod(exchange, "POST");
+                return create(exchange, query);
+            }
+            String id = parts[2];
+            String action = parts.length > 3 ? parts[3] : "";
+            if (parts.length > 4) {
+                throw new HttpException(404, "Unknown path " + exchange.getRequestURI().getPath());
+            }
+            switch (action) {
+                case "":
+                    requireMethod(exchange, "DELETE");
+                    if (!registry.remove(id)) {
+                        throw new HttpException(404, "Unknown maze " + id);
+                    }
+                    return respond(exchange, 204, "text/plain", "");
+                case "solve":
+                    requireMethod(exchange, "POST");
+                    return solve(exchange, id);
+                case "edit":
+                    requireMethod(exchange, "POST");
+                    return edit(exchange, id, query);
+                case "render":
+                    requireMethod(exchange, "GET");
+                    return render(exchange, id, query);
+                case "save":
+                    requireMethod(exchange, "POST");
+                    return save(exchange, id, query);
+                case "load":
+                    requireMethod(exchange, "POST");
+                    return load(exchange, id, query);
+                default:
+                    throw new HttpException(404, "Unknown action " + action);
+            }
+        });
+    }
+
+    private int create(HttpExchange exchange, Map<String, String> query) throws IOException {
+        int size = intParameter(query, "size", 17);
+        int height = intParameter(query, "height", size);
+        int width = intParameter(query, "width", size);
+        if (height < 3 || width < 3 || height > maxSize || width > maxSize) {
+            throw new IllegalArgumentException("Maze size must be between 3 and " + maxSize);
+        }
+        long seed = query.containsKey("seed") ? Long.parseLong(query.get("seed")) : Seeds.randomSeed();
+        GeneratorType generator = GeneratorType.valueOf(query.getOrDefault("generator", "prim").toUpperCase());
+
+        String id = "m" + Long.toString(sessions.incrementAndGet(), 36);
+        Maze maze = new Maze(new GraphMaker(height, width, seed));
+        maze.setGenerator(generator);
+        maze.generate();
+        registry.put(id, maze);
+        return respond(exchange, 201, "application/json", String.format(
+                "{\"id\": \"%s\", \"height\": %d, \"width\": %d, \"seed\": %d, \"generator\": \"%s\"}%n",
+                id, height, width, seed, generator));
+    }
+
+    private int solve(HttpExchange exchange, String id) throws IOException {
+        Maze maze = session(id);
+        int length;
+        try {
+            synchronized (maze) {
+                length = maze.findShortestPath().length;
+            }
+        } finally {
+            registry.release(id, maze);
+        }
+        return respond(exchange, 200, "application/json", String.format("{\"id\": \"%s\", \"length\": %d}%n", id, length));
+    }
+
+    private int edit(HttpExchange exchange, String id, Map<String, String> query) throws IOException {
+        int row = intParameter(query, "row", -1);
+        int column = intParameter(query, "col", -1);
+        String wall = query.getOrDefault("wall", "true");
+        Maze maze = session(id);
+        int length;
+        try {
+            synchronized (maze) {
+                Grid grid = maze.getState().getGrid();
+                if (row < 0 || column < 0 || row >= grid.getHeight() || column >= grid.getWidth()) {
+                    throw new IllegalArgumentException("Cell " + row + ", " + column + " is outside the maze");
+                }
+                if (Boolean.parseBoolean(wall)) {
+                    maze.setWall(row, column);
+                } else {
+                    maze.setPassage(row, column);
+                }
+                length = maze.findShortestPath().length;
+            }
+        } finally {
+            registry.release(id, maze);
+        }
+        return respond(exchange, 200, "application/json", String.format("{\"id\": \"%s\", \"length\": %d}%n", id, length));
+    }
+
+    private int render(HttpExchange exchange, String id, Map<String, String> query) throws IOException {
+        Maze maze = session(id);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            synchronized (maze) {
+                int row = intParameter(query, "row", 0);
+                int column = intParameter(query, "col", 0);
+                int height = intParameter(query, "height", maxSize);
+                int width = intParameter(query, "width", maxSize);
+                if (height > maxSize || width > maxSize) {
+                    throw new IllegalArgumentException("Viewport must be at most " + maxSize + " cells on a side");
+                }
+                maze.render(body, row, column, height, width);
+            }
+        } finally {
+            registry.release(id, maze);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            body.writeTo(out);
+        }
+        return 200;
+    }
+
+    private int save(HttpExchange exchange, String id, Map<String, String> query) throws IOException {
+        Path file = savedFile(query);
+        Maze maze = session(id);
+        try {
+            synchronized (maze) {
+                new Memory(maze).saveToFile(file.toString());
+            }
+        } finally {
+            registry.release(id, maze);
+        }
+        return respond(exchange, 200, "application/json", String.format(
+                "{\"id\": \"%s\", \"file\": \"%s\", \"bytes\": %d}%n", id, query.get("file"), Files.size(file)));
+    }
+
+    private int load(HttpExchange exchange, String id, Map<String, String> query) throws IOException {
+        Path file = savedFile(query);
+        if (!Files.exists(file)) {
+            throw new HttpException(404, "Unknown file " + query.get("file"));
+        }
+        Maze maze = new Maze(new GraphMaker());
+        try {
+            new Memory(maze).loadMazeFile(file.toString());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot load the maze. It has an invalid format");
+        }
+        registry.put(id, maze);
+        Grid grid = maze.getState().getGrid();
+        return respond(exchange, 200, "application/json", String.format(
+                "{\"id\": \"%s\", \"height\": %d, \"width\": %d}%n", id, grid.getHeight(), grid.getWidth()));
+    }
+
+    private Maze session(String id) throws IOException {
+        Maze maze = registry.acquire(id);
+        if (maze == null) {
+            throw new HttpException(404, "Unknown maze " + id);
+        }
+        return maze;
+    }
+
+    private Path savedFile(Map<String, String> query) {
+        String name = query.get("file");
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Parameter file must match " + NAME.pattern());
+        }
+        return data.resolve("saved").resolve(name + ".maze");
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new HttpException(405, "Use " + method);
+        }
+    }
+
+    private static int intParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be an integer: " + value);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static int respond(HttpExchange exchange, int status, String type, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", type + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, status == 204 ? -1 : bytes.length);
+        if (status != 204) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        return status;
+    }
+}
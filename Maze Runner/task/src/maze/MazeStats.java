@@ -0,0 +1,98 @@
+package maze;
+
+import java.util.Arrays;
+
+public class MazeStats {
+    public static final String CSV_HEADER = "cells,dead_ends,degree0,degree1,degree2,degree3,degree4,"
+            + "solution,diameter,corridors,longest_corridor,straight,turns";
+
+    private final int cells;
+    private final int deadEnds;
+    private final int[] junctions;
+    private final int solutionLength;
+    private final int diameter;
+    private final int corridors;
+    private final int longestCorridor;
+    private final int straightCells;
+    private final int turnCells;
+
+    public MazeStats(int cells, int deadEnds, int[] junctions, int solutionLength, int diameter,
+                     int corridors, int longestCorridor, int straightCells, int turnCells) {
+        this.cells = cells;
+        this.deadEnds = deadEnds;
+        this.junctions = junctions.clone();
+        this.solutionLength = solutionLength;
+        this.diameter = diameter;
+        this.corridors = corridors;
+        this.longestCorridor = longestCorridor;
+        this.straightCells = straightCells;
+        this.turnCells = turnCells;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    public int getDeadEnds() {
+        return deadEnds;
+    }
+
+    public int getJunctions(int degree) {
+        return junctions[degree];
+    }
+
+    public int[] getJunctions() {
+        return junctions.clone();
+    }
+
+    public int getSolutionLength() {
+        return solutionLength;
+    }
+
+    public int getDiameter() {
+        return diameter;
+    }
+
+    public int getCorridors() {
+        return corridors;
+    }
+
+    public int getLongestCorridor() {
+        return longestCorridor;
+    }
+
+    public double getMeanCorridor() {
+        return corridors == 0 ? 0 : (double) junctions[2] / corridors;
+    }
+
+    public double getStraightness() {
+        return junctions[2] == 0 ? 0 : (double) straightCells / junctions[2];
+    }
+
+    public int getStraightCells() {
+        return straightCells;
+    }
+
+    public int getTurnCells() {
+        return turnCells;
+    }
+
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder().append(cells).append(',').append(deadEnds);
+        for (int count : junctions) {
+            csv.append(',').append(count);
+        }
+        return csv.append(',').append(solutionLength).append(',').append(diameter)
+                .append(',').append(corridors).append(',').append(longestCorridor)
+                .append(',').append(straightCells).append(',').append(turnCells).toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{\"cells\": %d, \"deadEnds\": %d, \"junctions\": %s, \"solution\": %d, "
+                        + "\"diameter\": %d, \"corridors\": %d, \"longestCorridor\": %d, "
+                        + "\"meanCorridor\": %.2f, \"straightness\": %.3f}",
+                cells, deadEnds, Arrays.toString(junctions), solutionLength, diameter,
+                corridors, longestCorridor, getMeanCorridor(), getStraightness());
+    }
+}
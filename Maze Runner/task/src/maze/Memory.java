@@ -1,6 +1,11 @@
 package maze;
 
+import maze.legacy.LegacyImporter;
+
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class Memory {
     private final Maze maze;
@@ -10,26 +15,51 @@ public class Memory {
     }
 
     public void saveToFile(String filename) throws IOException {
+        Path path = Paths.get(filename);
         Maze.MazeState state = maze.getState();
-        serialize(state, filename);
+        Grid grid = state.getGrid();
+        try (Operation operation = Operation.start("serialize", grid.getHeight(), grid.getWidth())) {
+            MazeRecipe recipe = maze.getRecipe();
+            if (recipe != null) {
+                MazeFile.writeRecipe(recipe, path);
+            } else {
+                MazeFile.write(state, path);
+            }
+            operation.bytes(Files.size(path));
+        }
     }
 
     public void loadFromFile(String filename) throws IOException, ClassNotFoundException {
-        Object state = deserialize(filename);
-        maze.setState((Maze.MazeState) state);
-    }
-
-    private void serialize(Object obj, String fileName) throws IOException {
-        try (FileOutputStream fileOut = new FileOutputStream(fileName);
-             ObjectOutputStream oos = new ObjectOutputStream(fileOut)) {
-            oos.writeObject(obj);
+        Path path = Paths.get(filename);
+        int magic = MazeFile.readMagic(path);
+        if (magic == MazeFile.MAGIC || magic == MazeFile.RECIPE_MAGIC) {
+            loadMazeFile(filename);
+            return;
+        }
+        try (Operation operation = Operation.start("deserialize", 0, 0)) {
+            operation.bytes(Files.size(path));
+            maze.setState(LegacyImporter.read(filename));
+            Grid grid = maze.getState().getGrid();
+            operation.size(grid.getHeight(), grid.getWidth());
         }
     }
 
-    private static Object deserialize(String fileName) throws IOException, ClassNotFoundException {
-        try (FileInputStream fileIn = new FileInputStream(fileName);
-             ObjectInputStream ois = new ObjectInputStream(fileIn)) {
-            return ois.readObject();
+    public void loadMazeFile(String filename) throws IOException {
+        Path path = Paths.get(filename);
+        try (Operation operation = Operation.start("deserialize", 0, 0)) {
+            operation.bytes(Files.size(path));
+            switch (MazeFile.readMagic(path)) {
+                case MazeFile.MAGIC:
+                    maze.setState(MazeFile.map(path));
+                    break;
+                case MazeFile.RECIPE_MAGIC:
+                    maze.generate(MazeFile.readRecipe(path));
+                    break;
+                default:
+                    throw new IOException("Not a maze file: " + path);
+            }
+            Grid grid = maze.getState().getGrid();
+            operation.size(grid.getHeight(), grid.getWidth());
         }
     }
 }
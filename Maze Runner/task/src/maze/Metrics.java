@@ -0,0 +1,137 @@
+package maze;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Metrics {
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private Metrics() { }
+
+    public static void increment(String name) {
+        COUNTERS.computeIfAbsent(name, key -> new LongAdder()).increment();
+    }
+
+    public static void time(String name, long nanos) {
+        TIMERS.computeIfAbsent(name, key -> new Histogram()).record(nanos);
+    }
+
+    public static void record(String name, long value) {
+        HISTOGRAMS.computeIfAbsent(name, key -> new Histogram()).record(value);
+    }
+
+    public static long count(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public static Histogram timer(String name) {
+        return TIMERS.get(name);
+    }
+
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.get(name);
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+        TIMERS.clear();
+        HISTOGRAMS.clear();
+    }
+
+    public static String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"counters\": {");
+        String separator = "";
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(COUNTERS).entrySet()) {
+            json.append(separator).append("\n    ");
+            appendString(json, entry.getKey()).append(": ").append(entry.getValue().sum());
+            separator = ",";
+        }
+        json.append(separator.isEmpty() ? "},\n" : "\n  },\n");
+        appendHistograms(json, "timers", TIMERS).append(",\n");
+        appendHistograms(json, "histograms", HISTOGRAMS).append("\n}\n");
+        return json.toString();
+    }
+
+    private static StringBuilder appendHistograms(StringBuilder json, String title, Map<String, Histogram> histograms) {
+        json.append("  \"").append(title).append("\": {");
+        String separator = "";
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            json.append(separator).append("\n    ");
+            appendString(json, entry.getKey())
+                    .append(": {\"count\": ").append(histogram.getCount())
+                    .append(", \"sum\": ").append(histogram.getSum())
+                    .append(", \"max\": ").append(histogram.getMax())
+                    .append(", \"p50\": ").append(histogram.percentile(0.50))
+                    .append(", \"p90\": ").append(histogram.percentile(0.90))
+                    .append(", \"p99\": ").append(histogram.percentile(0.99))
+                    .append("}");
+            separator = ",";
+        }
+        return json.append(separator.isEmpty() ? "}" : "\n  }");
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    public static class Histogram {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+        public void record(long value) {
+            long clamped = Math.max(0, value);
+            count.increment();
+            sum.add(clamped);
+            max.accumulate(clamped);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(clamped) - (clamped == 0 ? 0 : 1));
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public long percentile(double fraction) {
+            long total = getCount();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets.length(); bucket++) {
+                seen += buckets.get(bucket);
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(getMax(), bucket == 0 ? 1 : (1L << bucket + 1) - 1);
+                }
+            }
+            return getMax();
+        }
+    }
+}
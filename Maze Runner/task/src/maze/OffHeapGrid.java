@@ -0,0 +1,158 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+public class OffHeapGrid implements PathCells, RowSink {
+    private static final int CHUNK_SHIFT = 27;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final int height;
+    private final int width;
+    private final LongBuffer[] passages;
+    private final LongBuffer[] path;
+    private int enterRow = -1;
+    private int exitRow = -1;
+    private int nextRow;
+
+    public OffHeapGrid(int height, int width) {
+        this.height = height;
+        this.width = width;
+        long words = ((long) height * width + 63) >>> 6;
+        passages = allocate(words);
+        path = allocate(words);
+    }
+
+    public static OffHeapGrid generate(int height, int width, long seed) throws IOException {
+        OffHeapGrid grid = new OffHeapGrid(height, width);
+        new EllerGenerator(seed).generate(height, width, grid);
+        return grid;
+    }
+
+    private static LongBuffer[] allocate(long words) {
+        int chunks = (int) ((words + CHUNK_MASK) >>> CHUNK_SHIFT);
+        LongBuffer[] buffers = new LongBuffer[chunks];
+        for (int i = 0; i < chunks; i++) {
+            long size = Math.min(CHUNK_MASK + 1, words - ((long) i << CHUNK_SHIFT));
+            buffers[i] = ByteBuffer.allocateDirect((int) size * Long.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+        return buffers;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    public int getEnterRow() {
+        return enterRow;
+    }
+
+    public int getExitRow() {
+        return exitRow;
+    }
+
+    public long byteSize() {
+        return 2 * (((long) height * width + 63) >>> 6) * Long.BYTES;
+    }
+
+    @Override
+    public boolean isWall(int y, int x) {
+        return !get(passages, cell(y, x));
+    }
+
+    @Override
+    public boolean isPath(int y, int x) {
+        return get(path, cell(y, x));
+    }
+
+    public void setPassage(int y, int x) {
+        set(passages, cell(y, x), true);
+    }
+
+    public void setWall(int y, int x) {
+        set(passages, cell(y, x), false);
+    }
+
+    @Override
+    public void begin(int height, int width, int enterRow, int exitRow) {
+        if (height != this.height || width != this.width) {
+            throw new IllegalArgumentException("Expected a " + this.height + "x" + this.width
+                    + " maze, got " + height + "x" + width);
+        }
+        this.enterRow = enterRow;
+        this.exitRow = exitRow;
+        this.nextRow = 0;
+    }
+
+    @Override
+    public void row(long[] row) {
+        long offset = cell(nextRow++, 0);
+        int left = width;
+        for (int i = 0; left > 0; i++) {
+            int count = Math.min(64, left);
+            long value = count == 64 ? row[i] : row[i] & (1L << count) - 1;
+            long bit = offset + 64L * i;
+            int shift = (int) (bit & 63);
+            or(passages, bit >>> 6, value << shift);
+            if (shift > 0 && value >>> (64 - shift) != 0) {
+                or(passages, (bit >>> 6) + 1, value >>> (64 - shift));
+            }
+            left -= count;
+        }
+    }
+
+    @Override
+    public void end() {
+    }
+
+    public long solve() {
+        clearPath();
+        return WallFollower.solve(this, enterRow, exitRow);
+    }
+
+    @Override
+    public void setPath(int y, int x, boolean value) {
+        set(path, cell(y, x), value);
+    }
+
+    public void clearPath() {
+        for (LongBuffer buffer : path) {
+            for (int i = 0; i < buffer.capacity(); i++) {
+                buffer.put(i, 0);
+            }
+        }
+    }
+
+    private long cell(int y, int x) {
+        return (long) y * width + x;
+    }
+
+    private static boolean get(LongBuffer[] plane, long cell) {
+        long word = cell >>> 6;
+        return (plane[(int) (word >>> CHUNK_SHIFT)].get((int) (word & CHUNK_MASK)) & 1L << cell) != 0;
+    }
+
+    private static void set(LongBuffer[] plane, long cell, boolean value) {
+        long word = cell >>> 6;
+        LongBuffer buffer = plane[(int) (word >>> CHUNK_SHIFT)];
+        int index = (int) (word & CHUNK_MASK);
+        long bits = buffer.get(index);
+        buffer.put(index, value ? bits | 1L << cell : bits & ~(1L << cell));
+    }
+
+    private static void or(LongBuffer[] plane, long word, long value) {
+        LongBuffer buffer = plane[(int) (word >>> CHUNK_SHIFT)];
+        int index = (int) (word & CHUNK_MASK);
+        buffer.put(index, buffer.get(index) | value);
+    }
+}
@@ -0,0 +1,49 @@
+package maze;
+
+public class Operation implements AutoCloseable {
+    private final String name;
+    private final MazeEvent event = new MazeEvent();
+    private final long start = System.nanoTime();
+    private int height;
+    private int width;
+    private long bytes;
+
+    private Operation(String name, int height, int width) {
+        this.name = name;
+        this.height = height;
+        this.width = width;
+        event.begin();
+    }
+
+    public static Operation start(String name, int height, int width) {
+        return new Operation(name, height, width);
+    }
+
+    public Operation size(int height, int width) {
+        this.height = height;
+        this.width = width;
+        return this;
+    }
+
+    public Operation bytes(long bytes) {
+        this.bytes = bytes;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        event.end();
+        Metrics.time(name, System.nanoTime() - start);
+        Metrics.record(name + ".cells", (long) height * width);
+        if (bytes > 0) {
+            Metrics.record(name + ".bytes", bytes);
+        }
+        if (event.shouldCommit()) {
+            event.operation = name;
+            event.height = height;
+            event.width = width;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package maze;
+
+public interface PathCells extends CellStore {
+
+    void setPath(int y, int x, boolean path);
+}
@@ -0,0 +1,195 @@
+package maze;
+
+import java.util.Arrays;
+
+public class PathIndex {
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final Grid grid;
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] first;
+    private final int[] euler;
+    private final int[] eulerDepth;
+    private final int[][] sparse;
+    private final int length;
+    private boolean tree = true;
+
+    public PathIndex(Grid grid, int root) {
+        if (root < 0 || root >= grid.size() || grid.isWall(root)) {
+            throw new IllegalArgumentException("Root is not a passage of the maze: " + root);
+        }
+        this.grid = grid;
+        int size = grid.size();
+        parent = new int[size];
+        depth = new int[size];
+        first = new int[size];
+        Arrays.fill(depth, -1);
+        int[] tour = new int[Math.max(1, 2 * countPassages(grid) - 1)];
+        length = buildTour(root, tour);
+        euler = tour;
+        eulerDepth = new int[length];
+        for (int i = 0; i < length; i++) {
+            eulerDepth[i] = depth[euler[i]];
+        }
+        sparse = buildSparseTable();
+    }
+
+    private static int countPassages(Grid grid) {
+        int count = 0;
+        for (int cell = 0; cell < grid.size(); cell++) {
+            if (!grid.isWall(cell)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int buildTour(int root, int[] tour) {
+        int[] stack = new int[tour.length / 2 + 1];
+        byte[] next = new byte[grid.size()];
+        int length = 0;
+        int top = 0;
+        stack[top++] = root;
+        parent[root] = root;
+        depth[root] = 0;
+        first[root] = length;
+        tour[length++] = root;
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int direction = next[cell];
+            if (direction == 4) {
+                top--;
+                if (top > 0) {
+                    tour[length++] = stack[top - 1];
+                }
+                continue;
+            }
+            next[cell]++;
+            int neighbour = grid.neighbour(cell, direction);
+            if (neighbour == -1 || grid.isWall(neighbour)) {
+                continue;
+            }
+            if (depth[neighbour] != -1) {
+                if (neighbour != parent[cell]) {
+                    tree = false;
+                }
+                continue;
+            }
+            parent[neighbour] = cell;
+            depth[neighbour] = depth[cell] + 1;
+            first[neighbour] = length;
+            tour[length++] = neighbour;
+            stack[top++] = neighbour;
+        }
+        return length;
+    }
+
+    private int[][] buildSparseTable() {
+        int blocks = (length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        int levels = 32 - Integer.numberOfLeadingZeros(blocks);
+        int[][] table = new int[levels][];
+        table[0] = new int[blocks];
+        for (int block = 0; block < blocks; block++) {
+            int from = block << BLOCK_SHIFT;
+            table[0][block] = scan(from, Math.min(length, from + BLOCK_SIZE) - 1);
+        }
+        for (int level = 1; level < levels; level++) {
+            int span = 1 << level;
+            int[] previous = table[level - 1];
+            int[] current = new int[blocks - span + 1];
+            for (int block = 0; block < current.length; block++) {
+                current[block] = min(previous[block], previous[block + (span >>> 1)]);
+            }
+            table[level] = current;
+        }
+        return table;
+    }
+
+    public boolean isTree() {
+        return tree;
+    }
+
+    public long byteSize() {
+        long ints = 3L * parent.length + euler.length + eulerDepth.length;
+        for (int[] level : sparse) {
+            ints += level.length;
+        }
+        return ints * Integer.BYTES;
+    }
+
+    public boolean contains(int cell) {
+        return cell >= 0 && cell < depth.length && depth[cell] != -1;
+    }
+
+    public int depth(int cell) {
+        check(cell);
+        return depth[cell];
+    }
+
+    public int lca(int a, int b) {
+        check(a);
+        check(b);
+        int from = Math.min(first[a], first[b]);
+        int to = Math.max(first[a], first[b]);
+        return euler[query(from, to)];
+    }
+
+    public int distance(int a, int b) {
+        return depth[a] + depth[b] - 2 * depth[lca(a, b)];
+    }
+
+    public int[] path(int a, int b) {
+        int ancestor = lca(a, b);
+        int up = depth[a] - depth[ancestor];
+        int[] path = new int[up + depth[b] - depth[ancestor] + 1];
+        int cell = a;
+        for (int i = 0; i <= up; i++) {
+            path[i] = cell;
+            cell = parent[cell];
+        }
+        cell = b;
+        for (int i = path.length - 1; i > up; i--) {
+            path[i] = cell;
+            cell = parent[cell];
+        }
+        return path;
+    }
+
+    private int query(int from, int to) {
+        int fromBlock = from >>> BLOCK_SHIFT;
+        int toBlock = to >>> BLOCK_SHIFT;
+        if (fromBlock == toBlock) {
+            return scan(from, to);
+        }
+        int best = min(scan(from, ((fromBlock + 1) << BLOCK_SHIFT) - 1), scan(toBlock << BLOCK_SHIFT, to));
+        if (fromBlock + 1 < toBlock) {
+            int left = fromBlock + 1;
+            int right = toBlock - 1;
+            int level = 31 - Integer.numberOfLeadingZeros(right - left + 1);
+            best = min(best, min(sparse[level][left], sparse[level][right - (1 << level) + 1]));
+        }
+        return best;
+    }
+
+    private int scan(int from, int to) {
+        int best = from;
+        for (int i = from + 1; i <= to; i++) {
+            if (eulerDepth[i] < eulerDepth[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private int min(int first, int second) {
+        return eulerDepth[second] < eulerDepth[first] ? second : first;
+    }
+
+    private void check(int cell) {
+        if (!contains(cell)) {
+            throw new IllegalArgumentException("Cell is not a passage of the maze: " + cell);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package maze;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+public class PngExporter {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] PALETTE = {
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            0x00, 0x00, 0x00,
+            (byte) 0xE0, 0x20, 0x20
+    };
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final int rows;
+    private final int columns;
+    private final Colouring colouring;
+    private final byte[] palette;
+    private final int bitDepth;
+    private final int scale;
+    private long written;
+
+    public interface Colouring {
+        int colour(int y, int x);
+    }
+
+    public PngExporter(CellStore cells, int scale) {
+        this(cells.getHeight(), cells.getWidth(),
+                (y, x) -> cells.isPath(y, x) ? 2 : cells.isWall(y, x) ? 1 : 0, PALETTE, 2, scale);
+    }
+
+    public PngExporter(int rows, int columns, Colouring colouring, byte[] palette, int bitDepth, int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        if (bitDepth != 1 && bitDepth != 2 && bitDepth != 4 && bitDepth != 8) {
+            throw new IllegalArgumentException("Unsupported palette bit depth: " + bitDepth);
+        }
+        if (palette.length % 3 != 0 || palette.length / 3 > 1 << bitDepth) {
+            throw new IllegalArgumentException("Palette does not fit " + bitDepth + " bits per pixel");
+        }
+        if ((long) columns * scale * bitDepth > Integer.MAX_VALUE - 8
+                || (long) rows * scale > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Image would be too large at scale " + scale);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.colouring = colouring;
+        this.palette = palette;
+        this.bitDepth = bitDepth;
+        this.scale = scale;
+    }
+
+    public long write(OutputStream out) throws IOException {
+        int width = columns * scale;
+        int height = rows * scale;
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(SIGNATURE);
+        written = SIGNATURE.length;
+        writeChunk(data, "IHDR", new byte[]{
+                (byte) (width >>> 24), (byte) (width >>> 16), (byte) (width >>> 8), (byte) width,
+                (byte) (height >>> 24), (byte) (height >>> 16), (byte) (height >>> 8), (byte) height,
+                (byte) bitDepth, 3, 0, 0, 0
+        }, 13);
+        writeChunk(data, "PLTE", palette, palette.length);
+
+        byte[] scanline = new byte[1 + (int) (((long) width * bitDepth + 7) / 8)];
+        byte[] compressed = new byte[CHUNK_SIZE];
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        int pending = 0;
+        try {
+            for (int y = 0; y < rows; y++) {
+                fill(scanline, y);
+                for (int repeat = 0; repeat < scale; repeat++) {
+                    deflater.setInput(scanline);
+                    while (!deflater.needsInput()) {
+                        pending = deflate(data, deflater, compressed, pending);
+                    }
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                pending = deflate(data, deflater, compressed, pending);
+            }
+            if (pending > 0) {
+                writeChunk(data, "IDAT", compressed, pending);
+            }
+        } finally {
+            deflater.end();
+        }
+        writeChunk(data, "IEND", new byte[0], 0);
+        data.flush();
+        return written;
+    }
+
+    private void fill(byte[] scanline, int y) {
+        Arrays.fill(scanline, (byte) 0);
+        int perByte = 8 / bitDepth;
+        int pixel = 0;
+        for (int x = 0; x < columns; x++) {
+            int colour = colouring.colour(y, x);
+            for (int repeat = 0; repeat < scale; repeat++, pixel++) {
+                int shift = 8 - bitDepth * (pixel % perByte + 1);
+                scanline[1 + pixel / perByte] |= (byte) (colour << shift);
+            }
+        }
+    }
+
+    private int deflate(DataOutputStream data, Deflater deflater, byte[] compressed, int pending)
+            throws IOException {
+        pending += deflater.deflate(compressed, pending, compressed.length - pending);
+        if (pending == compressed.length) {
+            writeChunk(data, "IDAT", compressed, pending);
+            return 0;
+        }
+        return pending;
+    }
+
+    private void writeChunk(DataOutputStream data, String type, byte[] body, int length)
+            throws IOException {
+        byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(body, 0, length);
+        data.writeInt(length);
+        data.write(name);
+        data.write(body, 0, length);
+        data.writeInt((int) crc.getValue());
+        written += 12L + length;
+    }
+}
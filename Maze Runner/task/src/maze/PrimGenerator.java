@@ -0,0 +1,25 @@
+package maze;
+
+import java.util.SplittableRandom;
+
+public class PrimGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(GridGraph graph, Grid grid, SplittableRandom random) {
+        int start = graph.getStart();
+        int[] parent = new int[graph.size()];
+        IndexedMinHeap frontier = new IndexedMinHeap(graph.size());
+        parent[start] = start;
+        frontier.offer(start, 0);
+        while (!frontier.isEmpty()) {
+            int node = frontier.poll();
+            grid.connect(parent[node], node);
+            for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+                int to = graph.target(edge);
+                if (frontier.offer(to, graph.weight(edge))) {
+                    parent[to] = node;
+                }
+            }
+        }
+    }
+}
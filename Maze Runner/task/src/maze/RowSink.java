@@ -0,0 +1,12 @@
+package maze;
+
+import java.io.IOException;
+
+public interface RowSink {
+
+    void begin(int height, int width, int enterRow, int exitRow) throws IOException;
+
+    void row(long[] passages) throws IOException;
+
+    void end() throws IOException;
+}
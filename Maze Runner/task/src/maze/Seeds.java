@@ -0,0 +1,44 @@
+package maze;
+
+import java.util.SplittableRandom;
+
+public class Seeds {
+    private static final int GRAPH = 0;
+    private static final int TREE = 1;
+    private static final int ENTRANCES = 2;
+
+    private final long seed;
+
+    public Seeds(long seed) {
+        this.seed = seed;
+    }
+
+    public static long randomSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public SplittableRandom graph() {
+        return branch(GRAPH);
+    }
+
+    public SplittableRandom tree() {
+        return branch(TREE);
+    }
+
+    public SplittableRandom entrances() {
+        return branch(ENTRANCES);
+    }
+
+    private SplittableRandom branch(int index) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom branch = root.split();
+        for (int i = 0; i < index; i++) {
+            branch = root.split();
+        }
+        return branch;
+    }
+}
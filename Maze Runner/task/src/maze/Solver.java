@@ -0,0 +1,50 @@
+package maze;
+
+import java.util.BitSet;
+
+public class Solver {
+
+    public int[] findPath(Grid grid, int from, int to) {
+        int[] parent = new int[grid.size()];
+        int[] queue = new int[grid.size()];
+        BitSet visited = new BitSet(grid.size());
+        if (grid.isWall(from)) {
+            return new int[0];
+        }
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        visited.set(from);
+        parent[from] = from;
+        while (head < tail) {
+            int node = queue[head++];
+            if (node == to) {
+                return collectPath(parent, from, to);
+            }
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(node, direction);
+                if (next == -1 || visited.get(next) || grid.isWall(next)) {
+                    continue;
+                }
+                visited.set(next);
+                parent[next] = node;
+                queue[tail++] = next;
+            }
+        }
+        return new int[0];
+    }
+
+    private int[] collectPath(int[] parent, int from, int to) {
+        int length = 1;
+        for (int node = to; node != from; node = parent[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int node = to;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = node;
+            node = parent[node];
+        }
+        return path;
+    }
+}
@@ -0,0 +1,141 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class TiledGenerator implements MazeGenerator {
+    private static final int MAX_TILES = 64;
+    private static final int MIN_TILE_ROWS = 16;
+
+    private final ForkJoinPool pool;
+
+    public TiledGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TiledGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void generate(GridGraph graph, Grid grid, SplittableRandom random) {
+        int tileCount = Math.max(1, Math.min(MAX_TILES, graph.getHeight() / MIN_TILE_ROWS));
+        int tileHeight = (graph.getHeight() + tileCount - 1) / tileCount;
+        Tiles tiles = new Tiles(graph, new DisjointSet(graph.size()), tileHeight, tileCount);
+        pool.invoke(new TileTask(tiles, 0, tileCount));
+
+        grid.setPassage(graph.getStart());
+        for (int[] accepted : tiles.accepted) {
+            for (int i = 0; i < accepted.length; i += 2) {
+                grid.connect(accepted[i], accepted[i + 1]);
+            }
+        }
+        for (int edge : tiles.stitch()) {
+            grid.connect(graph.source(edge), graph.target(edge));
+        }
+    }
+
+    private static class Tiles {
+        private final GridGraph graph;
+        private final DisjointSet sets;
+        private final int tileHeight;
+        private final int[][] accepted;
+        private final long[][] boundaries;
+
+        Tiles(GridGraph graph, DisjointSet sets, int tileHeight, int tileCount) {
+            this.graph = graph;
+            this.sets = sets;
+            this.tileHeight = tileHeight;
+            this.accepted = new int[tileCount][];
+            this.boundaries = new long[tileCount][];
+        }
+
+        void build(int tile) {
+            int first = graph.id(Math.min(graph.getHeight(), tile * tileHeight), 0);
+            int last = graph.id(Math.min(graph.getHeight(), (tile + 1) * tileHeight), 0);
+            int capacity = graph.firstEdge(last) - graph.firstEdge(first);
+            int[] from = new int[capacity];
+            int[] to = new int[capacity];
+            long[] order = new long[capacity];
+            long[] boundary = new long[capacity];
+            int innerCount = 0;
+            int boundaryCount = 0;
+            for (int cell = first; cell < last; cell++) {
+                for (int edge = graph.firstEdge(cell); edge < graph.endEdge(cell); edge++) {
+                    int target = graph.target(edge);
+                    if (target <= cell) {
+                        continue;
+                    }
+                    if (target < last) {
+                        from[innerCount] = cell;
+                        to[innerCount] = target;
+                        order[innerCount] = GridGraph.pack(graph.weight(edge), innerCount);
+                        innerCount++;
+                    } else {
+                        boundary[boundaryCount++] = GridGraph.pack(graph.weight(edge), edge);
+                    }
+                }
+            }
+            Arrays.sort(order, 0, innerCount);
+            int[] chosen = new int[2 * innerCount];
+            int chosenCount = 0;
+            for (int i = 0; i < innerCount; i++) {
+                int position = (int) order[i];
+                if (sets.union(from[position], to[position])) {
+                    chosen[chosenCount++] = from[position];
+                    chosen[chosenCount++] = to[position];
+                }
+            }
+            accepted[tile] = Arrays.copyOf(chosen, chosenCount);
+            boundaries[tile] = Arrays.copyOf(boundary, boundaryCount);
+        }
+
+        int[] stitch() {
+            int total = 0;
+            for (long[] boundary : boundaries) {
+                total += boundary.length;
+            }
+            long[] edges = new long[total];
+            int count = 0;
+            for (long[] boundary : boundaries) {
+                System.arraycopy(boundary, 0, edges, count, boundary.length);
+                count += boundary.length;
+            }
+            Arrays.sort(edges);
+            int[] chosen = new int[edges.length];
+            int chosenCount = 0;
+            for (long packed : edges) {
+                int edge = (int) packed;
+                if (sets.union(graph.source(edge), graph.target(edge))) {
+                    chosen[chosenCount++] = edge;
+                }
+            }
+            return Arrays.copyOf(chosen, chosenCount);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class TileTask extends RecursiveAction {
+        private final Tiles tiles;
+        private final int from;
+        private final int to;
+
+        TileTask(Tiles tiles, int from, int to) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                tiles.build(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(tiles, from, middle), new TileTask(tiles, middle, to));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package maze;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TiledGrid implements PathCells, Closeable {
+    private static final long[] WALLS = new long[0];
+
+    private final FileChannel channel;
+    private final int height;
+    private final int width;
+    private final int enterRow;
+    private final int exitRow;
+    private final int tileSize;
+    private final int tileRowWords;
+    private final int across;
+    private final long[] index;
+    private final int cacheTiles;
+    private final LinkedHashMap<Integer, long[]> cache;
+    private final Map<Integer, long[]> pathTiles = new HashMap<>();
+    private final ByteBuffer buffer;
+    private int lastTile = -1;
+    private long[] lastWords;
+    private long hits;
+    private long loads;
+
+    private TiledGrid(FileChannel channel, ByteBuffer header, int cacheTiles, Path path) throws IOException {
+        this.channel = channel;
+        this.height = header.getInt();
+        this.width = header.getInt();
+        this.enterRow = header.getInt();
+        this.exitRow = header.getInt();
+        this.tileSize = header.getInt();
+        if (height <= 0 || width <= 0) {
+            throw new IOException("Invalid maze size in " + path + ": " + height + "x" + width);
+        }
+        if (enterRow < 0 || enterRow >= height || exitRow < 0 || exitRow >= height) {
+            throw new IOException("Invalid entrances in " + path + ": " + enterRow + ", " + exitRow);
+        }
+        if (tileSize <= 0 || tileSize % 64 != 0 || (long) tileSize * tileSize / Byte.SIZE > Integer.MAX_VALUE) {
+            throw new IOException("Invalid tile size in " + path + ": " + tileSize);
+        }
+        long tiles = ((long) width + tileSize - 1) / tileSize * (((long) height + tileSize - 1) / tileSize);
+        if (tiles > (Integer.MAX_VALUE - 8) / Long.BYTES) {
+            throw new IOException("Too many tiles in " + path + ": " + tiles);
+        }
+        long data = TiledMazeFile.HEADER_SIZE + tiles * Long.BYTES;
+        if (channel.size() < data) {
+            throw new IOException("Truncated tiled maze file: " + path);
+        }
+        this.tileRowWords = tileSize / 64;
+        this.across = TiledMazeFile.tilesAcross(width, tileSize);
+        this.index = new long[(int) tiles];
+        this.cacheTiles = cacheTiles;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+        this.buffer = ByteBuffer.allocate(TiledMazeFile.tileWords(tileSize) * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        ByteBuffer indexBuffer = ByteBuffer.allocate(index.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(indexBuffer, TiledMazeFile.HEADER_SIZE);
+        long last = channel.size() - buffer.capacity();
+        for (int i = 0; i < index.length; i++) {
+            index[i] = indexBuffer.getLong();
+            if (index[i] != TiledMazeFile.WALL_TILE && (index[i] < data || index[i] > last)) {
+                throw new IOException("Invalid tile offset in " + path + ": " + index[i]);
+            }
+        }
+    }
+
+    public static TiledGrid open(Path path, int cacheTiles) throws IOException {
+        if (cacheTiles < 1) {
+            throw new IllegalArgumentException("Tile cache must hold at least one tile: " + cacheTiles);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TiledMazeFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                continue;
+            }
+            header.flip();
+            if (header.remaining() < TiledMazeFile.HEADER_SIZE || header.getInt() != TiledMazeFile.MAGIC) {
+                throw new IOException("Not a tiled maze file: " + path);
+            }
+            int version = header.getInt();
+            if (version != TiledMazeFile.VERSION) {
+                throw new IOException("Unsupported tiled maze file version: " + version);
+            }
+            return new TiledGrid(channel, header, cacheTiles, path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    public int getEnterRow() {
+        return enterRow;
+    }
+
+    public int getExitRow() {
+        return exitRow;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public int cachedTiles() {
+        return cache.size();
+    }
+
+    @Override
+    public boolean isWall(int y, int x) {
+        long[] words = tile(y, x);
+        return words == WALLS || (words[offset(y, x)] & 1L << x) == 0;
+    }
+
+    @Override
+    public boolean isPath(int y, int x) {
+        long[] words = pathTiles.get(tileOf(y, x));
+        return words != null && (words[offset(y, x)] & 1L << x) != 0;
+    }
+
+    @Override
+    public void setPath(int y, int x, boolean path) {
+        long[] words = pathTiles.get(tileOf(y, x));
+        if (words == null) {
+            if (!path) {
+                return;
+            }
+            words = new long[TiledMazeFile.tileWords(tileSize)];
+            pathTiles.put(tileOf(y, x), words);
+        }
+        int offset = offset(y, x);
+        words[offset] = path ? words[offset] | 1L << x : words[offset] & ~(1L << x);
+    }
+
+    public long solve() {
+        pathTiles.clear();
+        return WallFollower.solve(this, enterRow, exitRow);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int tileOf(int y, int x) {
+        return y / tileSize * across + x / tileSize;
+    }
+
+    private int offset(int y, int x) {
+        return y % tileSize * tileRowWords + (x % tileSize >>> 6);
+    }
+
+    private long[] tile(int y, int x) {
+        int id = tileOf(y, x);
+        if (id == lastTile) {
+            hits++;
+            return lastWords;
+        }
+        long[] words = index[id] == TiledMazeFile.WALL_TILE ? WALLS : cache.get(id);
+        if (words != null) {
+            hits++;
+        } else {
+            words = load(id);
+        }
+        lastTile = id;
+        lastWords = words;
+        return words;
+    }
+
+    private long[] load(int id) {
+        loads++;
+        buffer.clear();
+        try {
+            readFully(buffer, index[id]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long[] words = new long[TiledMazeFile.tileWords(tileSize)];
+        buffer.asLongBuffer().get(words);
+        if (cache.size() >= cacheTiles) {
+            Integer eldest = cache.keySet().iterator().next();
+            cache.remove(eldest);
+        }
+        cache.put(id, words);
+        return words;
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read == -1) {
+                throw new IOException("Truncated tiled maze file");
+            }
+            position += read;
+        }
+        target.flip();
+    }
+}
@@ -0,0 +1,157 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class TiledMazeFile {
+    public static final int MAGIC = 0x4D415A54;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int DEFAULT_TILE_SIZE = 256;
+    public static final long WALL_TILE = -1;
+
+    private TiledMazeFile() { }
+
+    public static RowSink rowSink(Path path) {
+        return rowSink(path, DEFAULT_TILE_SIZE);
+    }
+
+    public static RowSink rowSink(Path path, int tileSize) {
+        if (tileSize <= 0 || tileSize % 64 != 0) {
+            throw new IllegalArgumentException("Tile size must be a positive multiple of 64: " + tileSize);
+        }
+        return new TileWriter(path, tileSize);
+    }
+
+    public static int tileWords(int tileSize) {
+        return tileSize * tileSize / 64;
+    }
+
+    public static int tilesAcross(int width, int tileSize) {
+        return (width + tileSize - 1) / tileSize;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static class TileWriter implements RowSink {
+        private final Path path;
+        private final int tileSize;
+        private Path temporary;
+        private FileChannel channel;
+        private ByteBuffer tile;
+        private long[][] band;
+        private long[] index;
+        private int width;
+        private int across;
+        private int rowWords;
+        private int bandRow;
+        private int bandIndex;
+        private long position;
+
+        TileWriter(Path path, int tileSize) {
+            this.path = path;
+            this.tileSize = tileSize;
+        }
+
+        @Override
+        public void begin(int height, int width, int enterRow, int exitRow) throws IOException {
+            this.width = width;
+            across = tilesAcross(width, tileSize);
+            int down = tilesAcross(height, tileSize);
+            if ((long) across * down > Integer.MAX_VALUE - 8) {
+                throw new IOException("Too many tiles for a " + height + "x" + width + " maze");
+            }
+            rowWords = across * tileSize / 64;
+            band = new long[tileSize][rowWords];
+            index = new long[across * down];
+            tile = ByteBuffer.allocate(tileWords(tileSize) * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            temporary = path.resolveSibling(path.getFileName() + "." + System.nanoTime() + ".tmp");
+            channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(height)
+                    .putInt(width)
+                    .putInt(enterRow)
+                    .putInt(exitRow)
+                    .putInt(tileSize)
+                    .putInt(0)
+                    .flip();
+            writeFully(channel, header, 0);
+            position = HEADER_SIZE + (long) index.length * Long.BYTES;
+        }
+
+        @Override
+        public void row(long[] passages) throws IOException {
+            long[] target = band[bandRow];
+            int words = (width + 63) >>> 6;
+            System.arraycopy(passages, 0, target, 0, words);
+            if (width % 64 != 0) {
+                target[words - 1] &= (1L << width) - 1;
+            }
+            if (++bandRow == tileSize) {
+                flushBand();
+            }
+        }
+
+        @Override
+        public void end() throws IOException {
+            try {
+                if (bandRow > 0) {
+                    flushBand();
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(index.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (long offset : index) {
+                    buffer.putLong(offset);
+                }
+                buffer.flip();
+                writeFully(channel, buffer, HEADER_SIZE);
+                channel.close();
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private void flushBand() throws IOException {
+            for (int r = bandRow; r < tileSize; r++) {
+                Arrays.fill(band[r], 0);
+            }
+            int tileRowWords = tileSize / 64;
+            for (int column = 0; column < across; column++) {
+                tile.clear();
+                boolean empty = true;
+                for (long[] row : band) {
+                    for (int i = 0; i < tileRowWords; i++) {
+                        long word = row[column * tileRowWords + i];
+                        empty &= word == 0;
+                        tile.putLong(word);
+                    }
+                }
+                if (empty) {
+                    index[bandIndex * across + column] = WALL_TILE;
+                    continue;
+                }
+                tile.flip();
+                index[bandIndex * across + column] = position;
+                writeFully(channel, tile, position);
+                position += tile.limit();
+            }
+            bandIndex++;
+            bandRow = 0;
+        }
+    }
+}
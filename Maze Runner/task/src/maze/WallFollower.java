@@ -0,0 +1,46 @@
+package maze;
+
+public class WallFollower {
+    private static final int[] DY = {-1, 0, 1, 0};
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] TURNS = {1, 0, 3, 2};
+
+    private WallFollower() { }
+
+    public static long solve(PathCells cells, int enterRow, int exitRow) {
+        int height = cells.getHeight();
+        int width = cells.getWidth();
+        int y = enterRow;
+        int x = 0;
+        int direction = 1;
+        long length = 1;
+        long steps = 0;
+        long limit = 4L * height * width;
+        cells.setPath(y, x, true);
+        while (y != exitRow || x != width - 1) {
+            if (++steps > limit) {
+                throw new IllegalStateException("The exit is not reachable from the entrance");
+            }
+            for (int turn : TURNS) {
+                int next = (direction + turn) & 3;
+                int ny = y + DY[next];
+                int nx = x + DX[next];
+                if (ny < 0 || nx < 0 || ny >= height || nx >= width || cells.isWall(ny, nx)) {
+                    continue;
+                }
+                if (cells.isPath(ny, nx)) {
+                    cells.setPath(y, x, false);
+                    length--;
+                } else {
+                    cells.setPath(ny, nx, true);
+                    length++;
+                }
+                y = ny;
+                x = nx;
+                direction = next;
+                break;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,32 @@
+package maze;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+public class WilsonGenerator implements MazeGenerator {
+    @Override
+    public void generate(GridGraph graph, Grid grid, SplittableRandom random) {
+        int[] next = new int[graph.size()];
+        BitSet inTree = new BitSet(graph.size());
+        int start = graph.getStart();
+        inTree.set(start);
+        grid.setPassage(start);
+        for (int cell = 0; cell < graph.size(); cell++) {
+            if (inTree.get(cell) || graph.degree(cell) == 0) {
+                continue;
+            }
+            int walker = cell;
+            while (!inTree.get(walker)) {
+                int edge = graph.firstEdge(walker) + random.nextInt(graph.degree(walker));
+                next[walker] = graph.target(edge);
+                walker = next[walker];
+            }
+            walker = cell;
+            while (!inTree.get(walker)) {
+                inTree.set(walker);
+                grid.connect(walker, next[walker]);
+                walker = next[walker];
+            }
+        }
+    }
+}
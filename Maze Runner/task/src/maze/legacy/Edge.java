@@ -0,0 +1,10 @@
+package maze.legacy;
+
+import java.io.Serializable;
+
+class Edge implements Serializable {
+    private static final long serialVersionUID = 291037154352148229L;
+    private Node from;
+    private Node to;
+    int weight;
+}
@@ -0,0 +1,22 @@
+package maze.legacy;
+
+import java.io.Serializable;
+
+class GraphMaker implements Serializable {
+    private static final long serialVersionUID = 1424735767359371007L;
+    private int width;
+    private int height;
+    private Node[][] matrix;
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    Node[][] getMatrix() {
+        return matrix;
+    }
+}
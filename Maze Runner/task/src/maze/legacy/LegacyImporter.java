@@ -0,0 +1,64 @@
+package maze.legacy;
+
+import maze.Grid;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class LegacyImporter {
+    private static final Map<String, Class<?>> CLASSES = Map.of(
+            "maze.Maze$MazeState", Maze.MazeState.class,
+            "maze.GraphMaker", GraphMaker.class,
+            "maze.Node", Node.class,
+            "maze.Edge", Edge.class,
+            "[Lmaze.Node;", Node[].class,
+            "[[Lmaze.Node;", Node[][].class
+    );
+
+    private LegacyImporter() { }
+
+    public static maze.Maze.MazeState read(String fileName) throws IOException, ClassNotFoundException {
+        Object state;
+        try (FileInputStream fileIn = new FileInputStream(fileName);
+             ObjectInputStream ois = new LegacyInputStream(fileIn)) {
+            state = ois.readObject();
+        }
+        if (!(state instanceof Maze.MazeState)) {
+            throw new ClassNotFoundException("Not a legacy maze: " + state.getClass().getName());
+        }
+        return convert((Maze.MazeState) state);
+    }
+
+    private static maze.Maze.MazeState convert(Maze.MazeState state) {
+        GraphMaker graphMaker = state.getGraphMaker();
+        Grid grid = new Grid(graphMaker.getHeight(), graphMaker.getWidth());
+        for (Node[] row : graphMaker.getMatrix()) {
+            for (Node node : row) {
+                if (!node.isWall) {
+                    grid.setPassage(grid.id(node.getY(), node.getX()));
+                }
+            }
+        }
+        List<Node> nodes = new ArrayList<>(state.getSpanningTree().keySet());
+        Node enter = nodes.get(nodes.size() - 2);
+        Node exit = nodes.get(nodes.size() - 1);
+        return new maze.Maze.MazeState(grid,
+                grid.id(enter.getY(), enter.getX()),
+                grid.id(exit.getY(), exit.getX()));
+    }
+
+    private static class LegacyInputStream extends ObjectInputStream {
+
+        LegacyInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            Class<?> legacy = CLASSES.get(desc.getName());
+            return legacy != null ? legacy : super.resolveClass(desc);
+        }
+    }
+}
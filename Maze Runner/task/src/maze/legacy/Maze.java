@@ -0,0 +1,23 @@
+package maze.legacy;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+class Maze {
+
+    static class MazeState implements Serializable {
+        private static final long serialVersionUID = 7076557791987400397L;
+
+        private GraphMaker graphMaker;
+        private LinkedHashMap<Node, List<Edge>> spanningTree;
+
+        GraphMaker getGraphMaker() {
+            return graphMaker;
+        }
+
+        LinkedHashMap<Node, List<Edge>> getSpanningTree() {
+            return spanningTree;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package maze;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static maze.Mazes.generate;
+import static maze.Mazes.passages;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DistanceMapTest {
+    private static final int QUERIES = 300;
+
+    @Test
+    public void distancesMatchTheSolver() {
+        SplittableRandom random = new SplittableRandom(24);
+        for (int size : new int[]{3, 10, 51, 151}) {
+            for (GeneratorType generatorType : GeneratorType.values()) {
+                Maze maze = generate(size, generatorType, random.nextLong());
+                maze.setPassage(1, 1);
+                maze.setWall(size / 2, size / 2);
+                Grid grid = maze.getState().getGrid();
+                int enter = maze.getState().getEnter();
+                DistanceMap map = maze.getDistanceMap();
+                int[] cells = passages(grid);
+                int farthest = 0;
+                for (int i = 0; i < QUERIES; i++) {
+                    int cell = cells[random.nextInt(cells.length)];
+                    int expected = new Solver().findPath(grid, enter, cell).length - 1;
+                    String query = generatorType + " " + size + ": " + cell;
+                    assertEquals(query, expected, map.distance(cell));
+                    farthest = Math.max(farthest, expected);
+                }
+                assertTrue(map.getMaxDistance() >= farthest);
+                assertEquals(new Solver().findPath(grid, enter, maze.getState().getExit()).length - 1,
+                        map.distance(maze.getState().getExit()));
+            }
+        }
+    }
+
+    @Test
+    public void wideFrontiersAreExpandedInParallel() {
+        int size = 4601;
+        SplittableRandom random = new SplittableRandom(7);
+        Grid grid = new Grid(size, size);
+        for (int cell = 0; cell < grid.size(); cell++) {
+            if (random.nextInt(10) != 0) {
+                grid.setPassage(cell);
+            }
+        }
+        int source = grid.id(size / 2, size / 2);
+        grid.setPassage(source);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        DistanceMap map;
+        try {
+            map = DistanceMap.compute(grid, source, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(0, map.distance(source));
+        int[] levelSizes = new int[map.getMaxDistance() + 1];
+        long reached = 0;
+        for (int cell = 0; cell < grid.size(); cell++) {
+            int distance = map.distance(cell);
+            if (grid.isWall(cell)) {
+                assertEquals(DistanceMap.UNREACHABLE, distance);
+                continue;
+            }
+            boolean hasParent = distance == 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbour = grid.neighbour(cell, direction);
+                if (neighbour == -1 || grid.isWall(neighbour)) {
+                    continue;
+                }
+                int other = map.distance(neighbour);
+                if (distance == DistanceMap.UNREACHABLE) {
+                    assertEquals(DistanceMap.UNREACHABLE, other);
+                    continue;
+                }
+                assertTrue(other != DistanceMap.UNREACHABLE && Math.abs(other - distance) <= 1);
+                hasParent |= other == distance - 1;
+            }
+            if (distance != DistanceMap.UNREACHABLE) {
+                assertTrue("cell " + cell + " at " + distance, hasParent);
+                levelSizes[distance]++;
+                reached++;
+            }
+        }
+        assertEquals(reached, map.getReached());
+        int widest = 0;
+        for (int count : levelSizes) {
+            widest = Math.max(widest, count);
+        }
+        assertTrue("widest level " + widest, widest >= 1 << 13);
+    }
+}
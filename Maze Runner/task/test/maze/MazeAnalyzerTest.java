@@ -0,0 +1,172 @@
+package maze;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static maze.Mazes.generate;
+import static maze.Mazes.passages;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MazeAnalyzerTest {
+    @Test
+    public void countsTheShapeOfAHandBuiltMaze() {
+        Grid grid = grid(
+                "   ",
+                "## ",
+                "## ");
+        MazeStats stats = new MazeAnalyzer().analyze(grid, grid.id(0, 0), grid.id(2, 2));
+        assertEquals(5, stats.getCells());
+        assertEquals(0, stats.getDeadEnds());
+        assertArrayEquals(new int[]{0, 2, 3, 0, 0}, junctions(stats));
+        assertEquals(4, stats.getSolutionLength());
+        assertEquals(4, stats.getDiameter());
+        assertEquals(1, stats.getCorridors());
+        assertEquals(3, stats.getLongestCorridor());
+        assertEquals(2, stats.getStraightCells());
+        assertEquals(1, stats.getTurnCells());
+
+        grid.setPassage(grid.id(1, 0));
+        stats = new MazeAnalyzer().analyze(grid, grid.id(0, 0), grid.id(2, 2));
+        assertEquals(6, stats.getCells());
+        assertEquals(1, stats.getDeadEnds());
+        assertArrayEquals(new int[]{0, 2, 4, 0, 0}, junctions(stats));
+        assertEquals(4, stats.getSolutionLength());
+        assertEquals(5, stats.getDiameter());
+        assertEquals(4, stats.getLongestCorridor());
+        assertEquals(2, stats.getTurnCells());
+    }
+
+    @Test
+    public void matchesABruteForceSurvey() {
+        SplittableRandom random = new SplittableRandom(25);
+        MazeAnalyzer analyzer = new MazeAnalyzer();
+        for (int size : new int[]{51, 5, 23, 10}) {
+            for (GeneratorType generatorType : GeneratorType.values()) {
+                for (boolean edited : new boolean[]{false, true}) {
+                    Maze maze = generate(size, generatorType, random.nextLong());
+                    if (edited) {
+                        maze.setPassage(1, 1);
+                        maze.setWall(size / 2, size / 2);
+                    }
+                    String name = generatorType + " " + size + (edited ? " edited" : "");
+                    assertSurvey(name, maze, analyzer.analyze(maze.getState().getGrid(),
+                            maze.getState().getEnter(), maze.getState().getExit()), !edited);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void reportsAMissingSolution() {
+        Grid grid = grid(
+                " # ",
+                " # ",
+                " # ");
+        MazeStats stats = new MazeAnalyzer().analyze(grid, grid.id(0, 0), grid.id(2, 2));
+        assertEquals(3, stats.getCells());
+        assertEquals(-1, stats.getSolutionLength());
+        assertEquals(2, stats.getDiameter());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAWalledEntrance() {
+        Grid grid = grid(
+                "#  ",
+                "   ");
+        new MazeAnalyzer().analyze(grid, grid.id(0, 0), grid.id(1, 2));
+    }
+
+    @Test
+    public void csvRowsMatchTheHeader() {
+        MazeStats stats = generate(21, 3).analyze(new MazeAnalyzer());
+        assertEquals(MazeStats.CSV_HEADER.split(",").length, stats.toCsv().split(",").length);
+    }
+
+    private static void assertSurvey(String name, Maze maze, MazeStats stats, boolean perfect) {
+        Grid grid = maze.getState().getGrid();
+        int enter = maze.getState().getEnter();
+        int exit = maze.getState().getExit();
+        int[] fromEnter = distances(grid, enter);
+        int cells = 0;
+        int deadEnds = 0;
+        int[] junctions = new int[5];
+        for (int cell : passages(grid)) {
+            if (fromEnter[cell] == -1) {
+                continue;
+            }
+            cells++;
+            int degree = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(cell, direction);
+                if (next != -1 && !grid.isWall(next)) {
+                    degree++;
+                }
+            }
+            junctions[degree]++;
+            if (degree == 1 && cell != enter && cell != exit) {
+                deadEnds++;
+            }
+        }
+        assertEquals(name, cells, stats.getCells());
+        assertEquals(name, deadEnds, stats.getDeadEnds());
+        assertArrayEquals(name, junctions, junctions(stats));
+        assertEquals(name, junctions[2], stats.getStraightCells() + stats.getTurnCells());
+        assertEquals(name, new Solver().findPath(grid, enter, exit).length - 1, stats.getSolutionLength());
+        assertTrue(name, stats.getLongestCorridor() <= junctions[2]);
+
+        if (perfect) {
+            int diameter = 0;
+            for (int cell : passages(grid)) {
+                diameter = Math.max(diameter, Arrays.stream(distances(grid, cell)).max().orElse(0));
+            }
+            assertEquals(name, diameter, stats.getDiameter());
+        } else {
+            assertTrue(name, stats.getDiameter() >= stats.getSolutionLength());
+        }
+    }
+
+    private static int[] junctions(MazeStats stats) {
+        int[] junctions = new int[5];
+        for (int degree = 0; degree < junctions.length; degree++) {
+            junctions[degree] = stats.getJunctions(degree);
+        }
+        return junctions;
+    }
+
+    private static int[] distances(Grid grid, int source) {
+        int[] distance = new int[grid.size()];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[grid.size()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        distance[source] = 0;
+        while (head < tail) {
+            int cell = queue[head++];
+            for (int direction = 0; direction < 4; direction++) {
+                int next = grid.neighbour(cell, direction);
+                if (next != -1 && !grid.isWall(next) && distance[next] == -1) {
+                    distance[next] = distance[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distance;
+    }
+
+    private static Grid grid(String... rows) {
+        Grid grid = new Grid(rows.length, rows[0].length());
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < rows[y].length(); x++) {
+                if (rows[y].charAt(x) != '#') {
+                    grid.setPassage(grid.id(y, x));
+                }
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,146 @@
+package maze;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static maze.Mazes.assertPath;
+import static maze.Mazes.generate;
+import static maze.Mazes.passages;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MazeEditTest {
+    private static final int EDITS = 3000;
+
+    @Test
+    public void randomEditsMatchFreshSearch() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int size : new int[]{11, 51, 201}) {
+            Maze maze = generate(size, size);
+            maze.findShortestPath();
+            int enter = maze.getState().getEnter();
+            int exit = maze.getState().getExit();
+            for (int i = 0; i < EDITS; i++) {
+                edit(maze, random, size);
+                Grid grid = maze.getState().getGrid();
+                int[] expected = new Solver().findPath(grid, enter, exit);
+                int[] path = maze.findShortestPath();
+                String edit = size + "x" + size + " edit " + i;
+                assertEquals(edit, expected.length, path.length);
+                if (path.length > 0) {
+                    assertPath(edit, grid, enter, exit, path);
+                }
+                assertEquals(edit, path.length, countPathCells(maze.toString()));
+            }
+        }
+    }
+
+    @Test
+    public void pointQueriesStayShortestAfterEdits() {
+        SplittableRandom random = new SplittableRandom(21);
+        for (int trial = 0; trial < 30; trial++) {
+            Maze maze = generate(21, trial);
+            for (int i = 0; i < 20; i++) {
+                edit(maze, random, 21);
+            }
+            Grid grid = maze.getState().getGrid();
+            for (int query = 0; query < 200; query++) {
+                int from = random.nextInt(grid.size());
+                int to = random.nextInt(grid.size());
+                int[] expected = new Solver().findPath(grid, from, to);
+                int[] path = maze.findShortestPath(from, to);
+                String edit = "trial " + trial + ": " + from + " -> " + to;
+                assertEquals(edit, expected.length, path.length);
+                if (path.length > 0) {
+                    assertPath(edit, grid, from, to, path);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void walledEntranceFallsBackToSearch() {
+        SplittableRandom random = new SplittableRandom(23);
+        for (int trial = 0; trial < 20; trial++) {
+            Maze maze = generate(21, trial);
+            int enter = maze.getState().getEnter();
+            maze.setWall(enter / 21, enter % 21);
+            Grid grid = maze.getState().getGrid();
+            int[] cells = passages(grid);
+            for (int query = 0; query < 100; query++) {
+                int from = cells[random.nextInt(cells.length)];
+                int to = cells[random.nextInt(cells.length)];
+                int[] expected = new Solver().findPath(grid, from, to);
+                int[] path = maze.findShortestPath(from, to);
+                String edit = "trial " + trial + ": " + from + " -> " + to;
+                assertEquals(edit, expected.length, path.length);
+                if (path.length > 0) {
+                    assertPath(edit, grid, from, to, path);
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indexRejectsAWalledRoot() {
+        Maze maze = generate(21, 2);
+        int enter = maze.getState().getEnter();
+        maze.setWall(enter / 21, enter % 21);
+        new PathIndex(maze.getState().getGrid(), enter);
+    }
+
+    @Test
+    public void openingAWallBreaksTheTree() {
+        Maze maze = generate(21, 5);
+        assertTrue(maze.getPathIndex().isTree());
+        Grid grid = maze.getState().getGrid();
+        for (int y = 1; y < 20; y++) {
+            for (int x = 1; x < 20; x++) {
+                if (grid.isWall(y, x) && (y % 2 == 1 || x % 2 == 1)) {
+                    maze.setPassage(y, x);
+                    assertFalse(maze.getPathIndex().isTree());
+                    return;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void editsCopyAMappedGrid() throws Exception {
+        Maze maze = generate(31, 1);
+        Path file = Files.createTempFile("maze-edit", ".bin");
+        try {
+            MazeFile.write(maze.getState(), file);
+            Maze loaded = new Maze(new GraphMaker());
+            loaded.setState(MazeFile.map(file));
+            int before = loaded.findShortestPath().length;
+            loaded.setWall(1, 1);
+            loaded.setPassage(1, 1);
+            assertEquals(before, loaded.findShortestPath().length);
+            loaded.setWall(1, 1);
+            Maze reloaded = new Maze(new GraphMaker());
+            reloaded.setState(MazeFile.map(file));
+            assertEquals(maze.toString(), reloaded.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void edit(Maze maze, SplittableRandom random, int size) {
+        int y = random.nextInt(size);
+        int x = random.nextInt(size);
+        if (random.nextBoolean()) {
+            maze.setPassage(y, x);
+        } else {
+            maze.setWall(y, x);
+        }
+    }
+
+    private static int countPathCells(String rendered) {
+        return (int) rendered.chars().filter(c -> c == '/').count() / 2;
+    }
+}
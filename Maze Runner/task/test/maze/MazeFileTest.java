@@ -0,0 +1,159 @@
+package maze;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static maze.Mazes.generate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MazeFileTest {
+    private static final Path LEGACY = Paths.get("test", "maze", "legacy-10.bin");
+    private static final String[] LEGACY_ROWS = {
+            "##########",
+            "#     #  #",
+            "# # ### ##",
+            "# #   #  #",
+            "# # ### ##",
+            "# #      #",
+            "# # # ####",
+            "  # #     ",
+            "# # # # ##",
+            "##########"
+    };
+
+    @Test
+    public void bitmapSurvivesARoundTrip() throws IOException {
+        for (int[] size : new int[][]{{3, 3}, {10, 10}, {17, 64}, {65, 31}, {127, 127}}) {
+            Maze maze = new Maze(new GraphMaker(size[0], size[1], size[0] * 31L + size[1]));
+            maze.generate();
+            maze.setPassage(1, 1);
+            Path file = Files.createTempFile("maze-file", ".maze");
+            try {
+                MazeFile.write(maze.getState(), file);
+                Maze.MazeState state = MazeFile.map(file);
+                String name = size[0] + "x" + size[1];
+                assertEquals(name, size[0], state.getGrid().getHeight());
+                assertEquals(name, size[1], state.getGrid().getWidth());
+                assertEquals(name, maze.getState().getEnter(), state.getEnter());
+                assertEquals(name, maze.getState().getExit(), state.getExit());
+                Maze loaded = new Maze(new GraphMaker());
+                loaded.setState(state);
+                assertEquals(name, maze.toString(), loaded.toString());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void recipeSurvivesARoundTrip() throws IOException {
+        Path file = Files.createTempFile("maze-recipe", ".maze");
+        try {
+            for (GeneratorType generatorType : GeneratorType.values()) {
+                for (boolean implicit : new boolean[]{false, true}) {
+                    MazeRecipe recipe = new MazeRecipe(generatorType, 21, 35, -7L * generatorType.getId(), implicit);
+                    MazeFile.writeRecipe(recipe, file);
+                    assertEquals(MazeFile.RECIPE_SIZE, Files.size(file));
+                    MazeRecipe read = MazeFile.readRecipe(file);
+                    assertEquals(generatorType, read.getGeneratorType());
+                    assertEquals(21, read.getHeight());
+                    assertEquals(35, read.getWidth());
+                    assertEquals(recipe.getSeed(), read.getSeed());
+                    assertEquals(implicit, read.isImplicit());
+                }
+            }
+            Maze maze = generate(31, GeneratorType.KRUSKAL, 8);
+            new Memory(maze).saveToFile(file.toString());
+            Maze loaded = new Maze(new GraphMaker());
+            new Memory(loaded).loadMazeFile(file.toString());
+            assertEquals(maze.toString(), loaded.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void rejectsRecipesFromAnotherAlgorithmVersion() throws IOException {
+        Path file = Files.createTempFile("maze-recipe", ".maze");
+        try {
+            ByteBuffer recipe = ByteBuffer.allocate(MazeFile.RECIPE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            recipe.putInt(MazeFile.RECIPE_MAGIC).putInt(MazeFile.RECIPE_V3)
+                    .put((byte) GeneratorType.TILED.getId()).put((byte) 0)
+                    .putShort((short) (GeneratorType.TILED.getVersion() - 1))
+                    .putInt(21).putInt(21).putLong(1);
+            Files.write(file, recipe.array());
+            assertRejected(file, () -> MazeFile.readRecipe(file));
+
+            ByteBuffer unknown = ByteBuffer.wrap(recipe.array()).order(ByteOrder.LITTLE_ENDIAN);
+            unknown.put(8, (byte) 99);
+            Files.write(file, unknown.array());
+            assertRejected(file, () -> MazeFile.readRecipe(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void rejectsInvalidHeaders() throws IOException {
+        Path good = Files.createTempFile("maze-file", ".maze");
+        Path bad = Files.createTempFile("maze-bad", ".maze");
+        try {
+            MazeFile.write(generate(21, 4).getState(), good);
+            byte[] bytes = Files.readAllBytes(good);
+            int[][] fields = {{0, 0x12345678}, {4, MazeFile.VERSION + 1}, {8, -21}, {12, 0},
+                    {8, 1 << 16}, {12, 1 << 16}, {16, -1}, {20, 21 * 21}};
+            for (int[] field : fields) {
+                byte[] corrupt = bytes.clone();
+                ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(field[0], field[1]);
+                Files.write(bad, corrupt);
+                assertRejected(bad, () -> MazeFile.map(bad));
+            }
+            for (int length : new int[]{0, 10, MazeFile.HEADER_SIZE, bytes.length - 1}) {
+                Files.write(bad, Arrays.copyOf(bytes, length));
+                assertRejected(bad, () -> MazeFile.map(bad));
+            }
+        } finally {
+            Files.deleteIfExists(good);
+            Files.deleteIfExists(bad);
+        }
+    }
+
+    @Test
+    public void importsLegacyFiles() throws Exception {
+        Maze maze = new Maze(new GraphMaker());
+        new Memory(maze).loadFromFile(LEGACY.toString());
+        StringBuilder expected = new StringBuilder();
+        for (String row : LEGACY_ROWS) {
+            expected.append(row).append('\n');
+        }
+        assertEquals(expected.toString(), maze.toString().replace("\u2588\u2588", "#").replace("  ", " "));
+        assertTrue(maze.findShortestPath().length > 0);
+    }
+
+    @Test
+    public void mazeFileLoaderRejectsLegacyFiles() {
+        assertRejected(LEGACY, () -> new Memory(new Maze(new GraphMaker())).loadMazeFile(LEGACY.toString()));
+    }
+
+    private interface Load {
+        void run() throws IOException;
+    }
+
+    private static void assertRejected(Path file, Load load) {
+        try {
+            load.run();
+            fail("Loaded " + file);
+        } catch (IOException expected) {
+            return;
+        }
+    }
+}
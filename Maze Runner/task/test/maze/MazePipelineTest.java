@@ -0,0 +1,81 @@
+package maze;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static maze.Mazes.delete;
+import static maze.Mazes.generate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MazePipelineTest {
+    private static final int JOBS = 40;
+
+    @Test(timeout = 60000)
+    public void writesTheSameMazesAsDirectGeneration() throws Exception {
+        Path output = Files.createTempDirectory("maze-pipeline");
+        try {
+            int[] sizes = new int[JOBS];
+            long[] seeds = new long[JOBS];
+            for (int i = 0; i < JOBS; i++) {
+                sizes[i] = 5 + i % 7 * 4;
+                seeds[i] = i * 31L;
+            }
+            long[] latencies = new MazePipeline(GeneratorType.WILSON, output, 2, 3, 2, 2, 1).run(sizes, seeds);
+            assertEquals(JOBS, latencies.length);
+            assertTrue(Arrays.stream(latencies).allMatch(latency -> latency > 0));
+            for (int i = 0; i < JOBS; i++) {
+                Maze expected = generate(sizes[i], GeneratorType.WILSON, seeds[i]);
+                expected.findShortestPath();
+                String name = String.format("maze-%06d", i);
+                assertEquals(name, expected.toString(),
+                        new String(Files.readAllBytes(output.resolve(name + ".txt")), StandardCharsets.UTF_8));
+                Maze loaded = new Maze(new GraphMaker());
+                new Memory(loaded).loadMazeFile(output.resolve(name + ".bin").toString());
+                loaded.findShortestPath();
+                assertEquals(name, expected.toString(), loaded.toString());
+            }
+        } finally {
+            delete(output);
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void failingGeneratorStopsEveryStage() throws Exception {
+        Path output = Files.createTempDirectory("maze-pipeline");
+        try {
+            int[] sizes = new int[JOBS * 10];
+            Arrays.fill(sizes, 21);
+            sizes[JOBS] = 2;
+            long[] seeds = new long[sizes.length];
+            try {
+                new MazePipeline(GeneratorType.PRIM, output, 1, 2, 1, 1, 1).run(sizes, seeds);
+                fail("A maze of size 2 cannot be generated");
+            } catch (IOException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        } finally {
+            delete(output);
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void failingWriterStopsEveryStage() throws Exception {
+        Path output = Files.createTempDirectory("maze-pipeline");
+        delete(output);
+        int[] sizes = new int[JOBS];
+        Arrays.fill(sizes, 11);
+        try {
+            new MazePipeline(GeneratorType.PRIM, output, 1, 1, 1, 1, 1).run(sizes, new long[JOBS]);
+            fail("The output directory does not exist");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package maze;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static maze.Mazes.delete;
+import static maze.Mazes.generate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MazeRegistryTest {
+    private static final int SIZE = 41;
+    private static final long MAZE_BYTES = generate(SIZE, 0).byteSize();
+
+    @Test
+    public void spillsLeastRecentlyUsedMazes() throws IOException {
+        Path directory = Files.createTempDirectory("maze-registry");
+        try {
+            MazeRegistry registry = new MazeRegistry(3 * MAZE_BYTES, directory);
+            Maze[] mazes = new Maze[5];
+            for (int i = 0; i < mazes.length; i++) {
+                mazes[i] = generate(SIZE, i);
+                registry.put("m" + i, mazes[i]);
+            }
+            assertEquals(3, registry.getHotCount());
+            assertEquals(2, registry.getSpilledCount());
+            assertEquals(2, registry.getEvictions());
+            assertEquals(2, files(directory));
+            assertTrue(registry.getBytes() <= 3 * MAZE_BYTES);
+            assertSame(mazes[4], registry.get("m4"));
+
+            Maze reloaded = registry.get("m0");
+            assertNotSame(mazes[0], reloaded);
+            assertEquals(mazes[0].toString(), reloaded.toString());
+            assertEquals(3, registry.getHotCount());
+            assertEquals(2, registry.getSpilledCount());
+            assertEquals(2, files(directory));
+            assertEquals(1, registry.getMisses());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void pinnedMazesStayInMemory() throws IOException {
+        Path directory = Files.createTempDirectory("maze-registry");
+        try {
+            MazeRegistry registry = new MazeRegistry(MAZE_BYTES, directory);
+            Maze pinned = generate(SIZE, 1);
+            registry.put("pinned", pinned);
+            assertSame(pinned, registry.acquire("pinned"));
+            for (int i = 0; i < 3; i++) {
+                registry.put("m" + i, generate(SIZE, i + 2));
+            }
+            assertSame(pinned, registry.get("pinned"));
+            assertEquals(2, registry.getSpilledCount());
+            assertEquals(2, files(directory));
+
+            registry.release("pinned", pinned);
+            registry.put("last", generate(SIZE, 9));
+            assertNotSame(pinned, registry.get("pinned"));
+            assertEquals(pinned.toString(), registry.get("pinned").toString());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void reloadKeepsEditsAndDeletesTheSpillFile() throws IOException {
+        Path directory = Files.createTempDirectory("maze-registry");
+        try {
+            MazeRegistry registry = new MazeRegistry(MAZE_BYTES, directory);
+            Maze edited = generate(SIZE, 3);
+            edited.setPassage(1, 1);
+            edited.setWall(SIZE / 2, SIZE / 2);
+            edited.findShortestPath();
+            registry.put("edited", edited);
+            registry.put("other", generate(SIZE, 4));
+            assertEquals(1, files(directory));
+
+            Maze reloaded = registry.get("edited");
+            reloaded.findShortestPath();
+            assertEquals(edited.toString(), reloaded.toString());
+            assertEquals(1, registry.getSpilledCount());
+            assertEquals(1, files(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void removeForgetsHotAndSpilledMazes() throws IOException {
+        Path directory = Files.createTempDirectory("maze-registry");
+        try {
+            MazeRegistry registry = new MazeRegistry(MAZE_BYTES, directory);
+            registry.put("spilled", generate(SIZE, 5));
+            registry.put("hot", generate(SIZE, 6));
+            assertTrue(registry.remove("spilled"));
+            assertTrue(registry.remove("hot"));
+            assertFalse(registry.remove("hot"));
+            assertFalse(registry.contains("spilled"));
+            assertNull(registry.get("hot"));
+            assertEquals(0, registry.getBytes());
+            assertEquals(0, files(directory));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsIdsThatAreNotFileNames() throws IOException {
+        Path directory = Files.createTempDirectory("maze-registry");
+        try {
+            new MazeRegistry(MAZE_BYTES, directory).put("../escape", generate(SIZE, 7));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static long files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
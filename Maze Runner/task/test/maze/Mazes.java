@@ -0,0 +1,58 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+final class Mazes {
+    private Mazes() { }
+
+    static Maze generate(int size, long seed) {
+        return generate(size, GeneratorType.PRIM, seed);
+    }
+
+    static Maze generate(int size, GeneratorType generatorType, long seed) {
+        Maze maze = new Maze(new GraphMaker(size, size, seed));
+        maze.setGenerator(generatorType);
+        maze.generate();
+        return maze;
+    }
+
+    static int[] passages(Grid grid) {
+        int count = 0;
+        int[] cells = new int[grid.size()];
+        for (int cell = 0; cell < grid.size(); cell++) {
+            if (!grid.isWall(cell)) {
+                cells[count++] = cell;
+            }
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    static void assertPath(String message, Grid grid, int from, int to, int[] path) {
+        assertEquals(message, from, path[0]);
+        assertEquals(message, to, path[path.length - 1]);
+        for (int i = 0; i < path.length; i++) {
+            assertFalse(message, grid.isWall(path[i]));
+            if (i > 0) {
+                int step = Math.abs(path[i] - path[i - 1]);
+                assertTrue(message, step == 1 || step == grid.getWidth());
+            }
+        }
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package maze;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static maze.Mazes.assertPath;
+import static maze.Mazes.generate;
+import static maze.Mazes.passages;
+import static org.junit.Assert.assertEquals;
+
+public class PathIndexTest {
+    private static final int QUERIES = 500;
+
+    @Test
+    public void distancesMatchBreadthFirstSearch() {
+        SplittableRandom random = new SplittableRandom(12);
+        for (int size : new int[]{3, 4, 11, 30, 101}) {
+            for (GeneratorType generatorType : GeneratorType.values()) {
+                Maze maze = generate(size, generatorType, random.nextLong());
+                Grid grid = maze.getState().getGrid();
+                PathIndex index = maze.getPathIndex();
+                int[] cells = passages(grid);
+                for (int i = 0; i < QUERIES; i++) {
+                    int from = cells[random.nextInt(cells.length)];
+                    int to = cells[random.nextInt(cells.length)];
+                    int expected = new Solver().findPath(grid, from, to).length - 1;
+                    String query = generatorType + " " + size + ": " + from + " -> " + to;
+                    assertEquals(query, expected, index.distance(from, to));
+                    int[] path = index.path(from, to);
+                    assertEquals(query, expected + 1, path.length);
+                    assertPath(query, grid, from, to, path);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ancestorLiesOnBothRootPaths() {
+        SplittableRandom random = new SplittableRandom(7);
+        Maze maze = generate(51, GeneratorType.PRIM, 3);
+        Grid grid = maze.getState().getGrid();
+        int enter = maze.getState().getEnter();
+        PathIndex index = maze.getPathIndex();
+        int[] cells = passages(grid);
+        for (int i = 0; i < QUERIES; i++) {
+            int a = cells[random.nextInt(cells.length)];
+            int b = cells[random.nextInt(cells.length)];
+            int ancestor = index.lca(a, b);
+            assertEquals(index.depth(a), index.distance(enter, ancestor) + index.distance(ancestor, a));
+            assertEquals(index.depth(b), index.distance(enter, ancestor) + index.distance(ancestor, b));
+        }
+        assertEquals(0, index.depth(enter));
+    }
+}